@@ -0,0 +1,156 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.ai.Exaustive;
+import model.tree.CompactTree;
+import model.tree.RandomTreeGenerator;
+
+/**
+ * Classe <code>CompactModeBenchmark</code> comparant la mémoire utilisée par <code>Exaustive</code> en mode normal et en mode compact.
+ * Le corpus est formé d'arbres tirés par <code>RandomTreeGenerator</code>, de trois formes et de trois tailles.
+ * Pour chaque arbre et chaque mode, on mesure :
+ * <ul>
+ * 	<li>la mémoire retenue après <code>compute()</code>, tant que l'objet <code>Exaustive</code> est accessible,
+ * 	c'est-à-dire la différence de mémoire utilisée après un ramasse-miettes ;</li>
+ * 	<li>le pic de mémoire pendant <code>compute()</code>, somme des pics des zones du tas remis à zéro avant le calcul,
+ * 	qui majore le pic réel.</li>
+ * </ul>
+ * Les valeurs des coups calculées dans les deux modes sont comparées.
+ * <p>
+ * Usage : <code>java -Xmx2g bench.CompactModeBenchmark [graine]</code>.
+ * @author Grégoire
+ * @date 20 fév. 2016
+ * @see model.ai.Exaustive#setCompact(boolean)
+ * @version 1.0
+ */
+public class CompactModeBenchmark {
+
+	/**
+	 * Formes des arbres du corpus.
+	 */
+	private static final RandomTreeGenerator.Shape[] SHAPES = {
+		RandomTreeGenerator.Shape.UNIFORM, RandomTreeGenerator.Shape.GALTON_WATSON, RandomTreeGenerator.Shape.CATERPILLAR
+	};
+
+	/**
+	 * Tailles des arbres du corpus.
+	 */
+	private static final int[] SIZES = { 500, 1500, 3000 };
+
+	/**
+	 * Nombre d'octets dans un mégaoctet.
+	 */
+	private static final double MB = 1024 * 1024;
+
+	/**
+	 * Constructeur privé, cette classe n'ayant qu'un point d'entrée.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private CompactModeBenchmark() {
+	}
+
+	/**
+	 * Point d'entrée du benchmark.
+	 * @param args Graine du générateur, 1 par défaut.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+		RandomTreeGenerator generator = new RandomTreeGenerator(seed);
+		List<CompactTree> corpus = new ArrayList<CompactTree>();
+		for (RandomTreeGenerator.Shape shape : SHAPES) {
+			for (int size : SIZES) {
+				corpus.add(generator.generate(size, shape));
+			}
+		}
+		System.out.println("arbre                positions   retenu normal(Mo)  compact(Mo)   pic normal(Mo)  compact(Mo)");
+		double[] retained = new double[2];
+		double[] peak = new double[2];
+		double[] maxRetained = new double[2];
+		int differences = 0;
+		for (int i = 0; i < corpus.size(); i++) {
+			CompactTree ct = corpus.get(i);
+			double[] treeRetained = new double[2];
+			double[] treePeak = new double[2];
+			int[][] values = new int[2][];
+			int positions = 0;
+			for (int mode = 0; mode < 2; mode++) {
+				long before = CompactModeBenchmark.usedAfterGc();
+				CompactModeBenchmark.resetPeaks();
+				Exaustive ex = new Exaustive(ct);
+				ex.setCompact(mode == 1);
+				ex.compute();
+				treePeak[mode] = (CompactModeBenchmark.peak() - before) / MB;
+				treeRetained[mode] = (CompactModeBenchmark.usedAfterGc() - before) / MB;
+				// ex est encore utilisé ici : il reste accessible pendant la mesure de la mémoire retenue.
+				values[mode] = ex.getMoveValues();
+				positions = ex.getPositionCount();
+				retained[mode] += treeRetained[mode];
+				peak[mode] += treePeak[mode];
+				maxRetained[mode] = Math.max(maxRetained[mode], treeRetained[mode]);
+			}
+			if (!Arrays.equals(values[0], values[1])) {
+				differences++;
+			}
+			System.out.println(String.format("%-14s %5d %10d %17.1f %12.1f %16.1f %12.1f",
+					SHAPES[i / SIZES.length], ct.getSize(), positions,
+					treeRetained[0], treeRetained[1], treePeak[0], treePeak[1]));
+		}
+		System.out.println(String.format("total retenu : normal %.1f Mo, compact %.1f Mo (rapport %.0f)",
+				retained[0], retained[1], retained[0] / Math.max(retained[1], 0.1)));
+		System.out.println(String.format("retenu maximal : normal %.1f Mo, compact %.1f Mo", maxRetained[0], maxRetained[1]));
+		System.out.println(String.format("total des pics : normal %.1f Mo, compact %.1f Mo", peak[0], peak[1]));
+		System.out.println(differences == 0 ? "OK" : "ERREUR : " + differences + " arbres dont les coups diffèrent d'un mode à l'autre");
+	}
+
+	/**
+	 * Retourne la mémoire utilisée du tas après plusieurs passages du ramasse-miettes.
+	 * @return Le nombre d'octets utilisés.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static long usedAfterGc() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Remet à zéro le pic de chaque zone du tas.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static void resetPeaks() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	/**
+	 * Retourne la somme des pics des zones du tas depuis <code>resetPeaks()</code>.
+	 * @return Le nombre d'octets.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static long peak() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+}
@@ -0,0 +1,77 @@
+package bench;
+
+import java.util.Arrays;
+
+import model.ai.Exaustive;
+import model.ai.LinearUlehla;
+import model.tree.CompactTree;
+import model.tree.RandomTreeGenerator;
+
+/**
+ * Classe <code>ExaustiveBenchmark</code> mesurant le temps de résolution d'<code>Exaustive</code> sur des arbres de 40 à 60 noeuds,
+ * taille à partir de laquelle l'interface prévient que la recherche dépassera les 15 secondes.
+ * Pour chaque taille et chaque forme, on résout <code>count</code> arbres tirés par <code>RandomTreeGenerator</code>
+ * et l'on compare la valeur de chaque coup à celle donnée par <code>LinearUlehla</code>, qui n'utilise aucune empreinte :
+ * une collision d'empreintes dans la <code>TranspositionTable</code> apparaîtrait comme une différence.
+ * <p>
+ * Usage : <code>java bench.ExaustiveBenchmark [graine] [nombre d'arbres par taille]</code>.
+ * @author Grégoire
+ * @date 20 fév. 2016
+ * @see model.ai.Exaustive#compute()
+ * @see model.ai.LinearUlehla#getMoveValues()
+ * @version 1.0
+ */
+public class ExaustiveBenchmark {
+
+	/**
+	 * Tailles des arbres résolus.
+	 */
+	private static final int[] SIZES = { 40, 45, 50, 55, 60 };
+
+	/**
+	 * Constructeur privé, cette classe n'ayant qu'un point d'entrée.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private ExaustiveBenchmark() {
+	}
+
+	/**
+	 * Point d'entrée du benchmark.
+	 * @param args Graine du générateur puis nombre d'arbres par taille et par forme, 1 et 50 par défaut.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+		int count = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+		RandomTreeGenerator generator = new RandomTreeGenerator(seed);
+		System.out.println("forme          taille  moyenne(ms)  max(ms)  positions  differences");
+		int differences = 0;
+		for (RandomTreeGenerator.Shape shape : RandomTreeGenerator.Shape.values()) {
+			for (int size : SIZES) {
+				long total = 0;
+				long max = 0;
+				long positions = 0;
+				int wrong = 0;
+				for (int i = 0; i < count; i++) {
+					CompactTree ct = generator.generate(size, shape);
+					long start = System.nanoTime();
+					Exaustive ex = new Exaustive(ct);
+					ex.compute();
+					long time = System.nanoTime() - start;
+					total += time;
+					max = Math.max(max, time);
+					positions += ex.getPositionCount();
+					if (!Arrays.equals(ex.getMoveValues(), new LinearUlehla(ct).getMoveValues())) {
+						wrong++;
+					}
+				}
+				differences += wrong;
+				System.out.println(String.format("%-14s %6d %12.3f %8.3f %10d %12d",
+						shape, size, total / 1e6 / count, max / 1e6, positions / count, wrong));
+			}
+		}
+		System.out.println(differences == 0 ? "OK" : "ERREUR : " + differences + " arbres mal résolus");
+	}
+}
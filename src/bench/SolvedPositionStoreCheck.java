@@ -0,0 +1,271 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.ai.Exaustive;
+import model.ai.SolvedPositionStore;
+import model.tree.CompactTree;
+import model.tree.RandomTreeGenerator;
+
+/**
+ * Classe <code>SolvedPositionStoreCheck</code> vérifiant le fichier de positions résolues.
+ * Trois vérifications sont faites, dans un fichier temporaire :
+ * <ul>
+ * 	<li>aller-retour : des positions écrites puis relues après fermeture et réouverture du fichier retrouvent leur valeur,
+ * 	une position absente ou de même empreinte mais d'une autre taille n'en a aucune ;</li>
+ * 	<li>réutilisation : un corpus résolu par <code>Exaustive</code> avec le fichier, puis de nouveau après réouverture,
+ * 	donne les mêmes coups que sans fichier, et la seconde résolution n'ajoute aucune position ;</li>
+ * 	<li>lecture concurrente : une autre JVM écrit des positions pendant que plusieurs threads de celle-ci les lisent sans verrou.
+ * 	Chaque lecture doit retourner soit <code>UNKNOWN</code>, soit la valeur écrite, jamais une valeur fausse.</li>
+ * </ul>
+ * <p>
+ * Usage : <code>java bench.SolvedPositionStoreCheck</code>. La JVM d'écriture est lancée avec le même <code>classpath</code>.
+ * @author Grégoire
+ * @date 20 fév. 2016
+ * @see model.ai.SolvedPositionStore
+ * @version 1.0
+ */
+public class SolvedPositionStoreCheck {
+
+	/**
+	 * Nombre de positions écrites par les vérifications d'aller-retour et de lecture concurrente.
+	 */
+	private static final int POSITIONS = 200000;
+
+	/**
+	 * Nombre de threads de lecture de la vérification concurrente.
+	 */
+	private static final int READERS = 4;
+
+	/**
+	 * Constructeur privé, cette classe n'ayant qu'un point d'entrée.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private SolvedPositionStoreCheck() {
+	}
+
+	/**
+	 * Point d'entrée. Sans argument, lance les trois vérifications ;
+	 * avec les arguments <code>writer fichier</code>, écrit les positions de la vérification concurrente dans le fichier.
+	 * @param args Arguments de la ligne de commande.
+	 * @throws Exception Si le fichier ne peut être ouvert ou si la JVM d'écriture ne peut être lancée.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length == 2 && args[0].equals("writer")) {
+			SolvedPositionStoreCheck.write(new File(args[1]));
+			return;
+		}
+		File file = File.createTempFile("positions", ".bin");
+		try {
+			boolean ok = SolvedPositionStoreCheck.roundTrip(file);
+			ok &= SolvedPositionStoreCheck.reuse(file);
+			ok &= SolvedPositionStoreCheck.concurrentRead(file);
+			System.out.println(ok ? "OK" : "ERREUR");
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Écrit des positions, ferme le fichier, le rouvre et les relit.
+	 * @param file Fichier temporaire, vidé au préalable.
+	 * @return True si toutes les lectures sont correctes.
+	 * @throws IOException Si le fichier ne peut être ouvert.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static boolean roundTrip(File file) throws IOException {
+		file.delete();
+		SolvedPositionStore store = SolvedPositionStore.open(file, 2 * POSITIONS);
+		try {
+			for (int i = 0; i < POSITIONS; i++) {
+				store.put(SolvedPositionStoreCheck.key(i), SolvedPositionStoreCheck.size(i), SolvedPositionStoreCheck.value(i));
+			}
+		} finally {
+			store.close();
+		}
+		int wrong = 0;
+		store = SolvedPositionStore.open(file, 0);
+		try {
+			for (int i = 0; i < POSITIONS; i++) {
+				long key = SolvedPositionStoreCheck.key(i);
+				int size = SolvedPositionStoreCheck.size(i);
+				if (store.get(key, size) != SolvedPositionStoreCheck.value(i)
+						|| store.get(key, size + 1) != SolvedPositionStore.UNKNOWN
+						|| store.get(SolvedPositionStoreCheck.key(i + POSITIONS), size) != SolvedPositionStore.UNKNOWN) {
+					wrong++;
+				}
+			}
+			if (store.size() != POSITIONS) {
+				wrong++;
+			}
+		} finally {
+			store.close();
+		}
+		System.out.println("aller-retour : " + POSITIONS + " positions relues après réouverture, " + wrong + " erreurs");
+		return wrong == 0;
+	}
+
+	/**
+	 * Résout un corpus sans fichier, puis deux fois avec le fichier, en le refermant entre les deux.
+	 * @param file Fichier temporaire, vidé au préalable.
+	 * @return True si les trois résolutions donnent les mêmes coups et que la seconde n'ajoute aucune position.
+	 * @throws IOException Si le fichier ne peut être ouvert.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static boolean reuse(File file) throws IOException {
+		file.delete();
+		RandomTreeGenerator generator = new RandomTreeGenerator(1);
+		CompactTree[] corpus = new CompactTree[30];
+		for (int i = 0; i < corpus.length; i++) {
+			corpus[i] = generator.generate(100 * (i + 1), RandomTreeGenerator.Shape.UNIFORM);
+		}
+		int[][] expected = new int[corpus.length][];
+		for (int i = 0; i < corpus.length; i++) {
+			Exaustive ex = new Exaustive(corpus[i]);
+			ex.compute();
+			expected[i] = ex.getMoveValues();
+		}
+		int wrong = 0;
+		int[] stored = new int[2];
+		long[] time = new long[2];
+		for (int run = 0; run < 2; run++) {
+			SolvedPositionStore store = SolvedPositionStore.open(file, 1 << 20);
+			try {
+				long start = System.nanoTime();
+				for (int i = 0; i < corpus.length; i++) {
+					Exaustive ex = new Exaustive(corpus[i]);
+					ex.setStore(store);
+					ex.compute();
+					if (!Arrays.equals(expected[i], ex.getMoveValues())) {
+						wrong++;
+					}
+				}
+				time[run] = System.nanoTime() - start;
+				stored[run] = store.size();
+			} finally {
+				store.close();
+			}
+		}
+		System.out.println(String.format("réutilisation : %d puis %d positions, %.1f ms puis %.1f ms, %d erreurs",
+				stored[0], stored[1], time[0] / 1e6, time[1] / 1e6, wrong));
+		return wrong == 0 && stored[0] == stored[1];
+	}
+
+	/**
+	 * Lance une JVM écrivant les positions dans le fichier pendant que <code>READERS</code> threads les lisent sans verrou.
+	 * @param file Fichier temporaire, vidé au préalable.
+	 * @return True si aucune lecture n'a retourné de valeur fausse et que toutes les positions sont lues une fois l'écriture terminée.
+	 * @throws Exception Si le fichier ne peut être ouvert ou si la JVM d'écriture ne peut être lancée.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static boolean concurrentRead(File file) throws Exception {
+		file.delete();
+		final SolvedPositionStore store = SolvedPositionStore.open(file, 2 * POSITIONS);
+		try {
+			String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+			Process writer = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+					SolvedPositionStoreCheck.class.getName(), "writer", file.getPath()).inheritIO().start();
+			final AtomicBoolean done = new AtomicBoolean();
+			final AtomicLong reads = new AtomicLong();
+			final AtomicLong found = new AtomicLong();
+			final AtomicLong wrong = new AtomicLong();
+			Thread[] readers = new Thread[READERS];
+			for (int t = 0; t < READERS; t++) {
+				final int offset = t;
+				readers[t] = new Thread(new Runnable() {
+					public void run() {
+						for (int i = offset; !done.get(); i = (i + READERS) % POSITIONS) {
+							int value = store.get(SolvedPositionStoreCheck.key(i), SolvedPositionStoreCheck.size(i));
+							reads.incrementAndGet();
+							if (value != SolvedPositionStore.UNKNOWN) {
+								found.incrementAndGet();
+								if (value != SolvedPositionStoreCheck.value(i)) {
+									wrong.incrementAndGet();
+								}
+							}
+						}
+					}
+				});
+				readers[t].start();
+			}
+			int exit = writer.waitFor();
+			done.set(true);
+			for (Thread reader : readers) {
+				reader.join();
+			}
+			int missing = 0;
+			for (int i = 0; i < POSITIONS; i++) {
+				if (store.get(SolvedPositionStoreCheck.key(i), SolvedPositionStoreCheck.size(i)) != SolvedPositionStoreCheck.value(i)) {
+					missing++;
+				}
+			}
+			System.out.println("lecture concurrente : " + reads.get() + " lectures pendant l'écriture, dont " + found.get()
+					+ " trouvées et " + wrong.get() + " fausses ; " + missing + " positions manquantes après l'écriture");
+			return exit == 0 && wrong.get() == 0 && missing == 0;
+		} finally {
+			store.close();
+		}
+	}
+
+	/**
+	 * Écrit les positions de la vérification concurrente, depuis la JVM d'écriture.
+	 * @param file Fichier partagé avec la JVM de lecture.
+	 * @throws IOException Si le fichier ne peut être ouvert ou verrouillé.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static void write(File file) throws IOException {
+		SolvedPositionStore store = SolvedPositionStore.open(file, 0);
+		try {
+			for (int i = 0; i < POSITIONS; i++) {
+				store.put(SolvedPositionStoreCheck.key(i), SolvedPositionStoreCheck.size(i), SolvedPositionStoreCheck.value(i));
+			}
+		} finally {
+			store.close();
+		}
+	}
+
+	/**
+	 * Retourne l'empreinte de la i-ème position, mélangée comme une empreinte canonique.
+	 * @param i Numéro de la position.
+	 * @return L'empreinte.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static long key(int i) {
+		long h = (i + 1) * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 29);
+	}
+
+	/**
+	 * Retourne le nombre de noeuds de la i-ème position.
+	 * @param i Numéro de la position.
+	 * @return Le nombre de noeuds, entre 1 et 64.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static int size(int i) {
+		return 1 + i % 64;
+	}
+
+	/**
+	 * Retourne la valeur de la i-ème position.
+	 * @param i Numéro de la position.
+	 * @return La valeur, positive ou nulle.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static int value(int i) {
+		return (int) (SolvedPositionStoreCheck.key(i) >>> 48);
+	}
+}
@@ -0,0 +1,230 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.ai.LinearUlehla;
+import model.tree.CompactTree;
+import model.tree.Node;
+import model.tree.RandomTreeGenerator;
+import model.tree.Tree;
+
+/**
+ * Classe <code>TraversalBenchmark</code> mesurant les parcours de <code>Tree</code> et de <code>Node</code> écrits avec une pile explicite.
+ * Deux mesures sont faites :
+ * <ul>
+ * 	<li>le débit de chaque parcours, en noeuds par microseconde, sur de grands arbres touffus (Galton-Watson de 4 fils en moyenne,
+ * 	et arbres uniformes), afin de vérifier que la pile explicite n'est pas plus lente que la récursivité qu'elle remplace ;</li>
+ * 	<li>chaque parcours sur un chemin d'au moins 50 000 noeuds, exécuté dans un thread dont la pile ne fait que <code>STACK_SIZE</code> octets :
+ * 	une <code>StackOverflowError</code> y est signalée comme un échec.</li>
+ * </ul>
+ * <p>
+ * Usage : <code>java bench.TraversalBenchmark [noeuds des arbres touffus] [noeuds du chemin]</code>.
+ * @author Grégoire
+ * @date 20 fév. 2016
+ * @see model.tree.RandomTreeGenerator
+ * @version 1.0
+ */
+public class TraversalBenchmark {
+
+	/**
+	 * Taille de la pile du thread exécutant les parcours du chemin, bien inférieure à celle utilisée par défaut.
+	 */
+	private static final long STACK_SIZE = 256 * 1024;
+
+	/**
+	 * Nombre d'exécutions de chaque parcours avant la mesure.
+	 */
+	private static final int WARMUP = 5;
+
+	/**
+	 * Nombre d'exécutions mesurées de chaque parcours, dont on garde la plus rapide.
+	 */
+	private static final int RUNS = 10;
+
+	/**
+	 * Parcours mesurés.
+	 */
+	private static final Operation[] OPERATIONS = {
+		new Operation("clearCourse") {
+			void run(Tree t, CompactTree ct, int height) {
+				List<Node> roots = new ArrayList<Node>();
+				roots.add((Node) t.getRoot());
+				t.clearCourse(roots, 0);
+			}
+		},
+		new Operation("largeCourse") {
+			void run(Tree t, CompactTree ct, int height) {
+				List<Node> roots = new ArrayList<Node>();
+				roots.add((Node) t.getRoot());
+				t.largeCourse(roots, height);
+			}
+		},
+		new Operation("prefixeDepthCourse") {
+			void run(Tree t, CompactTree ct, int height) {
+				t.prefixeDepthCourse((Node) t.getRoot());
+			}
+		},
+		new Operation("suffixeDepthCourse") {
+			void run(Tree t, CompactTree ct, int height) {
+				t.suffixeDepthCourse((Node) t.getRoot());
+			}
+		},
+		new Operation("innerTree") {
+			void run(Tree t, CompactTree ct, int height) {
+				((Node) t.getRoot()).innerTree();
+			}
+		},
+		new Operation("clone") {
+			void run(Tree t, CompactTree ct, int height) {
+				t.clone();
+			}
+		},
+		new Operation("getBarcode") {
+			void run(Tree t, CompactTree ct, int height) {
+				t.getBarcode();
+			}
+		},
+		new Operation("LinearUlehla") {
+			void run(Tree t, CompactTree ct, int height) {
+				new LinearUlehla(ct).getMoveValues();
+			}
+		}
+	};
+
+	/**
+	 * Constructeur privé, cette classe n'ayant qu'un point d'entrée.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private TraversalBenchmark() {
+	}
+
+	/**
+	 * Point d'entrée du benchmark.
+	 * @param args Nombre de noeuds des arbres touffus puis du chemin, 200 000 et 100 000 par défaut.
+	 * @throws InterruptedException Si le thread principal est interrompu.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int bushy = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int deep = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+		RandomTreeGenerator generator = new RandomTreeGenerator(1);
+		generator.setMeanChildren(4.0);
+		TraversalBenchmark.throughput("GALTON_WATSON(4)", generator.generate(bushy, RandomTreeGenerator.Shape.GALTON_WATSON));
+		TraversalBenchmark.throughput("UNIFORM", generator.generate(bushy, RandomTreeGenerator.Shape.UNIFORM));
+		boolean ok = TraversalBenchmark.deepPath(generator.generate(deep, RandomTreeGenerator.Shape.PATH));
+		System.out.println(ok ? "OK" : "ERREUR : StackOverflowError sur le chemin");
+	}
+
+	/**
+	 * Affiche le débit de chaque parcours sur un arbre.
+	 * @param name Nom de la forme de l'arbre.
+	 * @param ct Arbre parcouru.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static void throughput(String name, CompactTree ct) {
+		Tree t = ct.toTree();
+		int height = TraversalBenchmark.height(ct);
+		System.out.println(name + ", " + ct.getSize() + " noeuds");
+		for (Operation op : OPERATIONS) {
+			for (int i = 0; i < WARMUP; i++) {
+				op.run(t, ct, height);
+			}
+			long best = Long.MAX_VALUE;
+			for (int i = 0; i < RUNS; i++) {
+				long start = System.nanoTime();
+				op.run(t, ct, height);
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			System.out.println(String.format("  %-20s %10.3f ms %10.1f noeuds/us", op.name, best / 1e6, ct.getSize() * 1e3 / best));
+		}
+	}
+
+	/**
+	 * Exécute chaque parcours sur un chemin, dans un thread dont la pile fait <code>STACK_SIZE</code> octets.
+	 * @param ct Chemin parcouru.
+	 * @return True si aucun parcours n'a levé de <code>StackOverflowError</code>.
+	 * @throws InterruptedException Si le thread principal est interrompu.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static boolean deepPath(final CompactTree ct) throws InterruptedException {
+		final Tree t = ct.toTree();
+		final int height = TraversalBenchmark.height(ct);
+		final boolean[] ok = { true };
+		System.out.println("PATH, " + ct.getSize() + " noeuds, pile de " + STACK_SIZE / 1024 + " Ko");
+		Thread thread = new Thread(null, new Runnable() {
+			public void run() {
+				for (Operation op : OPERATIONS) {
+					String result;
+					try {
+						long start = System.nanoTime();
+						op.run(t, ct, height);
+						result = String.format("%10.3f ms", (System.nanoTime() - start) / 1e6);
+					} catch (StackOverflowError e) {
+						result = "StackOverflowError";
+						ok[0] = false;
+					}
+					System.out.println(String.format("  %-20s %s", op.name, result));
+				}
+			}
+		}, "deep-path", STACK_SIZE);
+		thread.start();
+		thread.join();
+		return ok[0];
+	}
+
+	/**
+	 * Retourne la profondeur maximale d'un arbre, jusqu'à laquelle <code>largeCourse</code> descend.
+	 * @param ct Arbre dont les indices vérifient <code>parent[i] < i</code>.
+	 * @return La profondeur de la feuille la plus profonde.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static int height(CompactTree ct) {
+		int[] depth = new int[ct.getSize()];
+		int height = 0;
+		for (int i = 1; i < ct.getSize(); i++) {
+			depth[i] = depth[ct.getParent(i)] + 1;
+			height = Math.max(height, depth[i]);
+		}
+		return height;
+	}
+
+	/**
+	 * Parcours mesuré par le benchmark.
+	 * @author Grégoire
+	 * @date 20 fév. 2016
+	 * @version 1.0
+	 */
+	private abstract static class Operation {
+
+		/**
+		 * Nom du parcours.
+		 */
+		final String name;
+
+		/**
+		 * Constructeur d'un parcours.
+		 * @param name Nom du parcours.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		Operation(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Exécute le parcours.
+		 * @param t Arbre parcouru.
+		 * @param ct Même arbre, sous forme de <code>CompactTree</code>.
+		 * @param height Profondeur maximale de l'arbre.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		abstract void run(Tree t, CompactTree ct, int height);
+	}
+}
@@ -3,6 +3,7 @@ package model.ai;
 import java.util.ArrayList;
 import java.util.List;
 
+import model.tree.CompactTree;
 import model.tree.Node;
 import model.tree.Tree;
 
@@ -13,9 +14,14 @@ import model.tree.Tree;
  * 	<li>La méthode <code>Exaustive</code>, fonctionnant sur le principe suivant : Tester tout les coups possibles et déterminer le gagnant.</li>
  * 	<li>La méthode <code>Ulehla</code>, fonctionnant via un algortihme de recherche du coup gagnant très rapide.</li>
  * </ul>
+ * 
+ * V 1.1 :
+ * <ul>
+ * 	<li>Ajout du <code>CompactTree</code> équivalent au <code>Tree</code> afin que les <code>AI</code> puissent travailler sur des tableaux.</li>
+ * </ul>
  * @author Grégoire
  * @date 11 déc. 2015
- * @version 1.0
+ * @version 1.1
  */
 public class AI {
 	
@@ -29,6 +35,16 @@ public class AI {
 	 */
 	private List<Node> winninghits;
 	
+	/**
+	 * <code>CompactTree</code> équivalent à notre <code>Tree</code>, généré à la demande.
+	 */
+	private CompactTree compactTree;
+	
+	/**
+	 * <code>Node</code> du <code>Tree</code> rangés suivant les indices du <code>CompactTree</code>.
+	 */
+	private Node[] nodes;
+	
 	/**
 	 * Constructeur de la classe <code>AI</code> prenant l'arbre sur lequel on souhaite 
 	 * executé le code de nos <code>AI</code>.
@@ -40,6 +56,22 @@ public class AI {
 		this.setTree(t);
 		this.setWinninghits(new ArrayList<Node>());
 	}
+	
+	/**
+	 * Constructeur de la classe <code>AI</code> prenant un <code>CompactTree</code>.
+	 * Le <code>Tree</code> équivalent est construit une seule fois afin de pouvoir retourner les coups gagnants
+	 * sous forme de <code>Node</code>.
+	 * @param ct <code>CompactTree</code> sur lequel on effectue nos algortihme d'IA.
+	 * @see model.tree.CompactTree#toNodes()
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	public AI(CompactTree ct) {
+		this.nodes = ct.toNodes();
+		this.tree = new Tree(this.nodes[0]);
+		this.compactTree = ct;
+		this.setWinninghits(new ArrayList<Node>());
+	}
 
 	/**
 	 * Retourne le <code>Tree</code> avec lequel on joue.
@@ -59,6 +91,37 @@ public class AI {
 	 */
 	public void setTree(Tree tree) {
 		this.tree = tree;
+		this.compactTree = null;
+		this.nodes = null;
+	}
+	
+	/**
+	 * Retourne le <code>CompactTree</code> équivalent au <code>Tree</code> avec lequel on joue.
+	 * Celui-ci est généré lors du premier appel.
+	 * @return Le <code>CompactTree</code> sur lequel on joue.
+	 * @see model.tree.CompactTree#fromTree(Tree)
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	public CompactTree getCompactTree() {
+		if (this.compactTree == null) {
+			this.compactTree = CompactTree.fromTree(this.tree);
+			this.nodes = this.tree.prefixeDepthCourse((Node) this.tree.getRoot()).toArray(new Node[0]);
+		}
+		return this.compactTree;
+	}
+	
+	/**
+	 * Retourne le <code>Node</code> du <code>Tree</code> correspondant à un indice du <code>CompactTree</code>.
+	 * @param index Indice du noeud dans le <code>CompactTree</code>.
+	 * @return Le <code>Node</code> correspondant.
+	 * @see model.ai.AI#getCompactTree()
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	public Node getNode(int index) {
+		this.getCompactTree();
+		return this.nodes[index];
 	}
 
 	/**
@@ -0,0 +1,147 @@
+package model.ai;
+
+/**
+ * Classe <code>ConcurrentTranspositionTable</code>, <code>PositionTable</code> utilisable par plusieurs threads.
+ * La table est découpée en segments indépendants, chacun étant une <code>TranspositionTable</code> protégée par son propre verrou :
+ * deux threads ne se bloquent que s'ils accèdent à des positions du même segment.
+ * Le segment est choisi à partir des bits de poids fort de l'empreinte, la case dans le segment à partir des bits de poids faible.
+ * 
+ * V 1.2 : 
+ * <ul>
+ * 	<li>La classe n'hérite plus de <code>TranspositionTable</code>, dont elle n'utilisait pas les tableaux :
+ * 	elle implémente <code>PositionTable</code> et délègue chaque opération à ses segments.</li>
+ * </ul>
+ * 
+ * V 1.1 : 
+ * <ul>
+ * 	<li>Les positions sont identifiées par leur empreinte et leur nombre de noeuds, comme dans <code>TranspositionTable</code>.</li>
+ * </ul>
+ * @author Grégoire
+ * @date 31 jan. 2016
+ * @see model.ai.PositionTable
+ * @see model.ai.TranspositionTable
+ * @version 1.2
+ */
+public class ConcurrentTranspositionTable implements PositionTable {
+
+	/**
+	 * Nombre de bits de l'empreinte utilisés pour choisir le segment.
+	 */
+	private static final int SEGMENT_BITS = 6;
+	
+	/**
+	 * Segments de la table.
+	 */
+	private final TranspositionTable[] segments;
+	
+	/**
+	 * Constructeur de la classe <code>ConcurrentTranspositionTable</code> prévoyant au moins <code>expected</code> positions.
+	 * @param expected Nombre de positions attendues.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public ConcurrentTranspositionTable(int expected) {
+		this.segments = new TranspositionTable[1 << SEGMENT_BITS];
+		for (int i = 0; i < this.segments.length; i++) {
+			this.segments[i] = new TranspositionTable(expected >> SEGMENT_BITS);
+		}
+	}
+	
+	/**
+	 * Retourne le segment contenant une position.
+	 * @param key Empreinte canonique de la position.
+	 * @return Le segment de la position.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private TranspositionTable segment(long key) {
+		return this.segments[(int) (key >>> (Long.SIZE - SEGMENT_BITS))];
+	}
+	
+	/**
+	 * Retourne la valeur associée à une position, en verrouillant son segment.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @return La valeur associée, ou <code>UNKNOWN</code> si la position est absente.
+	 * @see model.ai.PositionTable#get(long, int)
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	@Override
+	public int get(long key, int size) {
+		TranspositionTable segment = this.segment(key);
+		synchronized (segment) {
+			return segment.get(key, size);
+		}
+	}
+	
+	/**
+	 * Associe une valeur à une position, en verrouillant son segment.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @param value Valeur comprise entre 0 et <code>MAX_VALUE</code>.
+	 * @see model.ai.PositionTable#put(long, int, int)
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	@Override
+	public void put(long key, int size, int value) {
+		TranspositionTable segment = this.segment(key);
+		synchronized (segment) {
+			segment.put(key, size, value);
+		}
+	}
+	
+	/**
+	 * Retourne la valeur associée à une position, en l'associant d'abord à <code>value</code> si elle est absente.
+	 * Le test et l'ajout sont faits de manière atomique.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @param value Valeur comprise entre 0 et <code>MAX_VALUE</code> à associer si la position est absente.
+	 * @return La valeur précédemment associée, ou <code>UNKNOWN</code> si la position était absente.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	@Override
+	public int putIfAbsent(long key, int size, int value) {
+		TranspositionTable segment = this.segment(key);
+		synchronized (segment) {
+			int previous = segment.get(key, size);
+			if (previous == UNKNOWN) {
+				segment.put(key, size, value);
+			}
+			return previous;
+		}
+	}
+	
+	/**
+	 * Retourne le nombre de positions présentes dans l'ensemble des segments.
+	 * @return Le nombre de positions.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	@Override
+	public int size() {
+		int size = 0;
+		for (TranspositionTable segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+	
+	/**
+	 * Vide tous les segments.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	@Override
+	public void clear() {
+		for (TranspositionTable segment : this.segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+}
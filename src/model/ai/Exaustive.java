@@ -1,14 +1,21 @@
 package model.ai;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.TreeMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
-
-
-import model.tree.Barcode;
-import model.tree.GhostTree;
-import model.tree.Node;
+import model.tree.CompactTree;
+import model.tree.PersistentTree;
 import model.tree.SubTrees;
 import model.tree.Tree;
 
@@ -16,6 +23,90 @@ import model.tree.Tree;
  * Classe représentant la méthode <code>Exaustive</code>.
  * Le principe de cette méthode est de chercher l'intégralité des coups gagnant issus d'un arbre
  * que l'on utilise pour jouer.
+ * V 1.14 :
+ * <ul>
+ * 	<li>La table des positions est une <code>PositionTable</code> : <code>TranspositionTable</code> en séquentiel,
+ * 	<code>ConcurrentTranspositionTable</code> en parallèle.</li>
+ * </ul>
+ * 
+ * V 1.13 :
+ * <ul>
+ * 	<li>Les positions sont identifiées dans la <code>TranspositionTable</code>, la <code>Tablebase</code> et le <code>SolvedPositionStore</code>
+ * 	par leur empreinte et leur nombre de noeuds : une collision d'empreintes entre arbres de tailles différentes ne donne plus une valeur fausse.</li>
+ * </ul>
+ * 
+ * V 1.12 :
+ * <ul>
+ * 	<li>Ajout de <code>getGrundy()</code> et <code>getMoveValues()</code>, comme pour <code>LinearUlehla</code> :
+ * 	le nombre de Grundy de chaque sous-arbre et la valeur de chaque coup sont conservés, et non plus seulement les coups gagnants.</li>
+ * 	<li>Le nombre de Grundy de chaque position est conservé dans son <code>SubTrees</code>.</li>
+ * </ul>
+ * 
+ * V 1.11 :
+ * <ul>
+ * 	<li>Les coups sont regroupés en orbites sous l'action des automorphismes de l'arbre : la découpe, la résolution et la recherche
+ * 	des coups gagnants n'évaluent qu'un représentant par orbite, le résultat étant reporté sur tous les noeuds de l'orbite.</li>
+ * </ul>
+ * 
+ * V 1.10 :
+ * <ul>
+ * 	<li>Ajout d'un mode compact : seul le nombre de Grundy de chaque position est conservé, dans la <code>TranspositionTable</code>,
+ * 	et les coups sont rejoués à la demande lors de la résolution au lieu d'être stockés dans <code>sousArbres</code>.</li>
+ * 	<li>Ajout de <code>getPositionCount()</code>, indépendant du mode.</li>
+ * </ul>
+ * 
+ * V 1.9 :
+ * <ul>
+ * 	<li>Les positions sont des <code>PersistentTree</code> : un sous-arbre est extrait sans être reconstruit,
+ * 	et les forêts obtenues en jouant partagent les sous-arbres de la position, leur génération coûtant O(n) au lieu de O(n²).</li>
+ * 	<li>La valeur de chaque coup se déduit de celle du coup joué sur le parent, en un seul parcours préfixe.</li>
+ * </ul>
+ * 
+ * V 1.8 :
+ * <ul>
+ * 	<li>Le mode parallèle découpe les arbres par vagues puis les résout par taille croissante, chaque vague ou taille étant partagée entre les threads :
+ * 	les sous-tâches ne sont plus imbriquées suivant la profondeur de l'arbre, qui n'est donc plus limitée par la pile d'appels.</li>
+ * </ul>
+ * 
+ * V 1.7 :
+ * <ul>
+ * 	<li>Ajout d'une <code>Tablebase</code> optionnelle, consultée avant le <code>SolvedPositionStore</code> : les petits arbres ne sont plus découpés.</li>
+ * </ul>
+ * 
+ * V 1.6 :
+ * <ul>
+ * 	<li>Ajout d'un <code>SolvedPositionStore</code> optionnel : les arbres qui y figurent ne sont pas redécoupés,
+ * 	et ceux résolus y sont ajoutés, afin d'être réutilisés d'une exécution à l'autre.</li>
+ * </ul>
+ * 
+ * V 1.5 :
+ * <ul>
+ * 	<li>Ajout d'un mode parallèle reposant sur un <code>ForkJoinPool</code> : chaque arbre résout les sous-arbres de ses fils dans des sous-tâches,
+ * 	les nombres de Grundy étant partagés dans une <code>ConcurrentTranspositionTable</code>.</li>
+ * 	<li>Ajout de constructeurs prenant le nombre de threads à utiliser.</li>
+ * 	<li>Les nombres de Grundy peuvent dépasser 255 : ils sont stockés sur 16 bits.</li>
+ * </ul>
+ * 
+ * V 1.4 :
+ * <ul>
+ * 	<li>Hackendot étant un jeu impartial, la valeur d'une forêt est le XOR des nombres de Grundy de ses arbres (Sprague-Grundy) :
+ * 	les positions explorées sont désormais des arbres enracinés, et non plus des forêts, ce qui réduit fortement leur nombre.</li>
+ * 	<li>La <code>TranspositionTable</code> contient le nombre de Grundy de chaque arbre.</li>
+ * </ul>
+ * 
+ * V 1.3 :
+ * <ul>
+ * 	<li>Les positions sont stockées dans une <code>HashMap</code> et leur issue dans une <code>TranspositionTable</code> indexée par empreinte canonique.</li>
+ * 	<li>Les successeurs d'une position sont identifiés par leur empreinte : seul le <code>Barcode</code> des positions nouvelles est calculé.</li>
+ * 	<li>L'ordre d'exploration ne dépend plus de l'ordre des <code>Barcode</code> : la découpe utilise une file et la résolution se fait par taille croissante.</li>
+ * </ul>
+ * 
+ * V 1.2 :
+ * <ul>
+ * 	<li>La découpe et la recherche des coups gagnants travaillent sur des <code>CompactTree</code> plutôt que sur des <code>GhostTree</code>.</li>
+ * 	<li>Ajout d'un constructeur prenant un <code>CompactTree</code>.</li>
+ * </ul>
+ * 
  * V 1.1 :
  * <ul>
  * 	<li>Ajout d'une version optimisée de <code>decoupe(GhostTree)</code> plus rapide et efficace.</li>
@@ -23,21 +114,73 @@ import model.tree.Tree;
  * 
  * @author Grégoire
  * @date 11 déc. 2015
- * @version 1.1
+ * @version 1.14
  */
 public class Exaustive extends AI {
 
 	/**
-	 * <code>TreeMap</code> représentant les sous arbre issus de notre arbre courant
-	 * représenter sous forme de <code>Barcode</code> ainsi qu'un <code>SubTree</code>
+	 * Nombre de Grundy d'une position perdante pour le joueur qui doit jouer.
+	 */
+	static final int LOSING = 0;
+	
+	/**
+	 * Valeur stockée dans la <code>TranspositionTable</code> pour un arbre rencontré mais pas encore résolu.
+	 * Les nombres de Grundy doivent donc lui être inférieurs.
+	 */
+	static final int PENDING = PositionTable.MAX_VALUE;
+
+	/**
+	 * <code>Map</code> représentant les sous arbre issus de notre arbre courant
+	 * représenter sous forme de <code>PersistentTree</code> ainsi qu'un <code>SubTree</code>.
+	 * Les clés sont des arbres enracinés, les forêts partageant les sous-arbres de leur clé.
+	 */
+	Map<PersistentTree, SubTrees> sousArbres;
+	
+	/**
+	 * Positions rencontrées lors de la découpe, rangées par taille.
+	 */
+	private List<List<PersistentTree>> parTaille;
+	
+	/**
+	 * Table des positions contenant le nombre de Grundy de chaque arbre.
+	 */
+	private PositionTable table;
+	
+	/**
+	 * Nombre de threads utilisés par <code>compute()</code>, 1 pour une résolution séquentielle.
+	 */
+	private int parallelism;
+	
+	/**
+	 * Fichier des arbres déjà résolus lors d'exécutions précédentes, <code>null</code> si on n'en utilise pas.
+	 */
+	private SolvedPositionStore store;
+	
+	/**
+	 * Table des nombres de Grundy des petits arbres, <code>null</code> si on n'en utilise pas.
+	 */
+	private Tablebase tablebase;
+	
+	/**
+	 * Indique si <code>compute()</code> travaille en mode compact, sans remplir <code>sousArbres</code>.
+	 */
+	private boolean compact;
+	
+	/**
+	 * Nombre de Grundy du sous-arbre issu de chaque noeud, <code>null</code> avant <code>compute()</code>.
+	 */
+	private int[] grundy;
+	
+	/**
+	 * Valeur de la forêt obtenue en jouant chaque noeud, <code>null</code> avant <code>compute()</code>.
 	 */
-	TreeMap<Barcode, SubTrees> sousArbres;
+	private int[] moveValues;
 
 	/**
 	 * Constructeur de la classe <code>Exaustive</code> effectuant la recherche par méthode <code>Exaustive</code>/
 	 * @param t <code>Tree</code> avec lequel on joue et sur lequel on effectue la méthode <code>Exaustive</code>.
 	 * @see model.ai.AI#getTree()
-	 * @see model.ai.Exaustive#decoupe(GhostTree)
+	 * @see model.ai.Exaustive#decoupe(PersistentTree)
 	 * @see model.ai.Exaustive#parcourir()
 	 * @see model.ai.Exaustive#generateWiningHits()
 	 * @see model.tree.Tree#getRoot()
@@ -45,16 +188,80 @@ public class Exaustive extends AI {
 	 * @version 1.0
 	 */
 	public Exaustive(Tree t) {
+		this(t, 1);
+	}
+	
+	/**
+	 * Constructeur de la classe <code>Exaustive</code> effectuant la recherche sur plusieurs threads.
+	 * Les coups gagnants obtenus sont identiques à ceux de la résolution séquentielle.
+	 * @param t <code>Tree</code> avec lequel on joue et sur lequel on effectue la méthode <code>Exaustive</code>.
+	 * @param parallelism Nombre de threads à utiliser, 1 pour une résolution séquentielle.
+	 * @throws IllegalArgumentException Si <code>parallelism</code> est inférieur à 1.
+	 * @see java.util.concurrent.ForkJoinPool
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public Exaustive(Tree t, int parallelism) {
 		super(t);
+		this.setParallelism(parallelism);
+	}
+	
+	/**
+	 * Constructeur de la classe <code>Exaustive</code> travaillant directement sur un <code>CompactTree</code>.
+	 * @param ct <code>CompactTree</code> avec lequel on joue.
+	 * @see model.ai.AI#AI(CompactTree)
+	 * @since 1.2
+	 * @version 1.0
+	 */
+	public Exaustive(CompactTree ct) {
+		this(ct, 1);
+	}
+	
+	/**
+	 * Constructeur de la classe <code>Exaustive</code> travaillant directement sur un <code>CompactTree</code>, sur plusieurs threads.
+	 * @param ct <code>CompactTree</code> avec lequel on joue.
+	 * @param parallelism Nombre de threads à utiliser, 1 pour une résolution séquentielle.
+	 * @throws IllegalArgumentException Si <code>parallelism</code> est inférieur à 1.
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public Exaustive(CompactTree ct, int parallelism) {
+		super(ct);
+		this.setParallelism(parallelism);
+	}
+	
+	/**
+	 * Retourne le nombre de threads utilisés par <code>compute()</code>.
+	 * @return Le nombre de threads.
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+	
+	/**
+	 * Modificateur du nombre de threads utilisés par <code>compute()</code>.
+	 * @param parallelism Nombre de threads à utiliser, 1 pour une résolution séquentielle.
+	 * @throws IllegalArgumentException Si <code>parallelism</code> est inférieur à 1.
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Le nombre de threads doit être au moins 1 : " + parallelism);
+		}
+		this.parallelism = parallelism;
 	}
 	
 	/**
 	 * Méthode retournant l'ensembles des sous-abres de notre arbre courant.
-	 * @return L'ensemble des sous-arbre issus de notre arbre courant.
+	 * @return L'ensemble des sous-arbre issus de notre arbre courant, vide en mode compact.
+	 * @see model.ai.Exaustive#isCompact()
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.3
 	 */
-	public TreeMap<Barcode, SubTrees> getSousArbres() {
+	public Map<PersistentTree, SubTrees> getSousArbres() {
 		return this.sousArbres;
 	}
 
@@ -62,97 +269,576 @@ public class Exaustive extends AI {
 	 * Modificateur de l'attribut <code>sousarbre</code>.
 	 * @param sousArbres Nouveaux sous-arbre que l'on passe a notre <code>Tree</code>.
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.2
 	 */
-	public void setSousArbres(TreeMap<Barcode, SubTrees> sousArbres) {
+	public void setSousArbres(Map<PersistentTree, SubTrees> sousArbres) {
 		this.sousArbres = sousArbres;
 	}
+	
+	/**
+	 * Indique si <code>compute()</code> travaille en mode compact.
+	 * @return true si seul le nombre de Grundy des positions est conservé.
+	 * @since 1.10
+	 * @version 1.10
+	 */
+	public boolean isCompact() {
+		return this.compact;
+	}
+	
+	/**
+	 * Modificateur du mode compact. En mode compact, <code>sousArbres</code> reste vide : la mémoire utilisée par position
+	 * se réduit à son nombre de Grundy dans la <code>TranspositionTable</code> et à sa place dans <code>parTaille</code>,
+	 * les forêts obtenues en jouant étant rejouées lors de la résolution. Les coups gagnants obtenus sont identiques.
+	 * @param compact true pour ne conserver que le nombre de Grundy des positions.
+	 * @since 1.10
+	 * @version 1.10
+	 */
+	public void setCompact(boolean compact) {
+		this.compact = compact;
+	}
+	
+	/**
+	 * Retourne le nombre de positions découpées par le dernier appel à <code>compute()</code>, quel que soit le mode.
+	 * @return Le nombre de positions, 0 avant <code>compute()</code>.
+	 * @since 1.10
+	 * @version 1.10
+	 */
+	public int getPositionCount() {
+		int count = 0;
+		if (this.parTaille != null) {
+			for (List<PersistentTree> positions : this.parTaille) {
+				count += positions.size();
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Retourne le fichier des arbres déjà résolus utilisé par <code>compute()</code>.
+	 * @return Le fichier des arbres résolus, <code>null</code> si on n'en utilise pas.
+	 * @since 1.6
+	 * @version 1.0
+	 */
+	public SolvedPositionStore getStore() {
+		return this.store;
+	}
+	
+	/**
+	 * Modificateur du fichier des arbres déjà résolus.
+	 * Le fichier reste ouvert après <code>compute()</code>, il appartient à l'appelant de le fermer.
+	 * @param store Fichier des arbres résolus, <code>null</code> pour ne pas en utiliser.
+	 * @since 1.6
+	 * @version 1.0
+	 */
+	public void setStore(SolvedPositionStore store) {
+		this.store = store;
+	}
+	
+	/**
+	 * Retourne la table des nombres de Grundy des petits arbres utilisée par <code>compute()</code>.
+	 * @return La table, <code>null</code> si on n'en utilise pas.
+	 * @since 1.7
+	 * @version 1.0
+	 */
+	public Tablebase getTablebase() {
+		return this.tablebase;
+	}
+	
+	/**
+	 * Modificateur de la table des nombres de Grundy des petits arbres.
+	 * @param tablebase Table à consulter avant toute découpe, <code>null</code> pour ne pas en utiliser.
+	 * @since 1.7
+	 * @version 1.0
+	 */
+	public void setTablebase(Tablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+	
+	/**
+	 * Retourne le nombre de Grundy du sous-arbre issu de chaque noeud, la case 0 étant celui de l'arbre entier.
+	 * @return Les nombres de Grundy, indexés suivant le <code>CompactTree</code>, <code>null</code> avant <code>compute()</code>.
+	 * @see model.ai.LinearUlehla#getGrundy()
+	 * @since 1.12
+	 * @version 1.12
+	 */
+	public int[] getGrundy() {
+		return this.grundy;
+	}
+	
+	/**
+	 * Retourne la valeur de la forêt obtenue en jouant chaque noeud : un coup est gagnant si et seulement si elle est nulle.
+	 * @return Les valeurs des coups, indexées suivant le <code>CompactTree</code>, <code>null</code> avant <code>compute()</code>.
+	 * @see model.ai.LinearUlehla#getMoveValues()
+	 * @since 1.12
+	 * @version 1.12
+	 */
+	public int[] getMoveValues() {
+		return this.moveValues;
+	}
+	
+	/**
+	 * Retourne la table contenant le nombre de Grundy des arbres explorés.
+	 * @return La table des positions, <code>null</code> avant <code>compute()</code>.
+	 * @since 1.3
+	 * @version 1.1
+	 */
+	public PositionTable getTable() {
+		return this.table;
+	}
 
 	/**
 	 * Méthode optimale permettant de découper au mieux l'arbre.
-	 * Celle-ci est à préféré à <code>decoupe2(GhostTree)</code> qui est moins optimisée.
-	 * @param t Arbre sur lequel on effectue la découpe.
-	 * @see model.tree.Tree#getBarcode()
-	 * @see model.tree.Tree#getRoot()
-	 * @see model.tree.Tree#prefixeDepthCourse(Node)
-	 * @see model.tree.Tree#delete(Node)
-	 * @see model.tree.Barcode#generateTree()
+	 * On joue sur chacun des noeuds de chaque arbre, les forêts obtenues partageant ses sous-arbres :
+	 * seuls les sous-arbres absents de la <code>TranspositionTable</code> sont placés dans une file, l'ordre d'exploration n'a donc pas d'importance.
+	 * Les arbres présents dans la <code>Tablebase</code> ou le <code>SolvedPositionStore</code> sont directement résolus, sauf l'arbre de départ
+	 * dont les sous-arbres sont nécessaires à <code>generateWiningHits()</code>.
+	 * @param start Arbre sur lequel on effectue la découpe.
+	 * @see model.tree.PersistentTree#prefixe()
+	 * @see model.tree.PersistentTree#moves()
+	 * @see model.ai.Exaustive#stored(long, int)
 	 * @since 1.1
-	 * @version 1.0
+	 * @version 1.7
 	 */
-	private void decoupe(GhostTree t) {
-		Barcode currentkey = t.getBarcode();
-		sousArbres.put(currentkey, new SubTrees(null, null));		
-		while (currentkey !=  null) {
-			List<Barcode> succ = new ArrayList<Barcode>();
-			t = new GhostTree((Node) currentkey.generateTree().getRoot());
-			for (Node n : t.prefixeDepthCourseGhost((Node) t.getRoot())) {					
-				GhostTree gt = new GhostTree(t.delete(n));
-				Barcode bc = gt.getBarcode();
-				succ.add(bc);
-				sousArbres.put(bc, null);
-			}	
-			succ.remove(0);
-			sousArbres.put(currentkey, new SubTrees(succ, null));
-			currentkey = sousArbres.lowerKey(currentkey);
+	private void decoupe(PersistentTree start) {
+		ArrayDeque<PersistentTree> file = new ArrayDeque<PersistentTree>();
+		this.table.put(start.getHash(), start.getSize(), PENDING);
+		file.add(start);
+		while (!file.isEmpty()) {
+			PersistentTree currentkey = file.poll();
+			this.decouper(currentkey, file);
+			this.ranger(currentkey);
 		}
 	}
 
+	/**
+	 * Découpe un arbre : les sous-arbres absents de la <code>TranspositionTable</code> sont lus dans la <code>Tablebase</code> ou le <code>SolvedPositionStore</code>,
+	 * ou réservés puis ajoutés à <code>file</code> afin d'être découpés à leur tour ; les forêts obtenues en jouant sont ajoutées à <code>sousArbres</code>,
+	 * sauf en mode compact.
+	 * Un sous-arbre n'est réservé qu'une seule fois, y compris lorsque plusieurs threads découpent en même temps.
+	 * Seuls les représentants des orbites sont parcourus : un fils isomorphe à un fils précédent n'apporte aucun nouveau sous-arbre.
+	 * @param currentkey Arbre à découper, déjà réservé.
+	 * @param file Arbres restant à découper.
+	 * @see model.ai.PositionTable#putIfAbsent(long, int, int)
+	 * @see model.tree.PersistentTree#getDistinctChild(int)
+	 * @since 1.8
+	 * @version 1.4
+	 */
+	private void decouper(PersistentTree currentkey, Collection<PersistentTree> file) {
+		PersistentTree[] stack = new PersistentTree[16];
+		int top = 0;
+		stack[top++] = currentkey;
+		while (top > 0) {
+			PersistentTree t = stack[--top];
+			stack[top] = null;
+			if (t != currentkey) {
+				long hash = t.getHash();
+				int size = t.getSize();
+				if (this.table.get(hash, size) == PositionTable.UNKNOWN) {
+					int grundy = this.stored(hash, size);
+					if (grundy != SolvedPositionStore.UNKNOWN) {
+						this.table.put(hash, size, grundy);
+					} else if (this.table.putIfAbsent(hash, size, PENDING) == PositionTable.UNKNOWN) {
+						file.add(t);
+					}
+				}
+			}
+			if (top + t.getDistinctChildCount() > stack.length) {
+				stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + t.getDistinctChildCount()));
+			}
+			for (int i = t.getDistinctChildCount() - 1; i >= 0; i--) {
+				stack[top++] = t.getDistinctChild(i);
+			}
+		}
+		if (!this.compact) {
+			this.sousArbres.put(currentkey, new SubTrees(currentkey.moves(), null));
+		}
+	}
+
+	/**
+	 * Range un arbre découpé dans <code>parTaille</code>, suivant son nombre de noeuds.
+	 * @param currentkey Arbre découpé.
+	 * @since 1.8
+	 * @version 1.1
+	 */
+	private void ranger(PersistentTree currentkey) {
+		while (this.parTaille.size() <= currentkey.getSize()) {
+			this.parTaille.add(new ArrayList<PersistentTree>());
+		}
+		this.parTaille.get(currentkey.getSize()).add(currentkey);
+	}
+
 	/**
 	 * Méthode permettant de parcourir la liste de tout les sous-arbre afin d'en déduire
-	 * ceux possédant un coup gagnant.
-	 * @see model.tree.SubTrees#setHasWinningHit(Boolean)
-	 * @see model.tree.SubTrees#isLosingHit()
-	 * @see model.tree.SubTrees#getBc()
+	 * leur nombre de Grundy, et donc ceux possédant un coup gagnant.
+	 * Le nombre de Grundy d'un arbre est le plus petit entier qui n'est pas la valeur d'une des forêts obtenues en jouant,
+	 * la valeur d'une forêt étant le XOR des nombres de Grundy de ses arbres.
+	 * Les arbres sont traités par taille croissante : les arbres d'une forêt obtenue étant plus petits,
+	 * leur nombre de Grundy est déjà présent dans la <code>TranspositionTable</code>.
+	 * @see model.tree.SubTrees#setLosingHit(Boolean)
+	 * @see model.ai.Exaustive#resoudre(PersistentTree)
+	 * @see model.ai.TranspositionTable
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.4
 	 */
 	private void parcourir() {
-		Barcode fk = this.sousArbres.firstKey();
-		SubTrees st = this.sousArbres.get(fk);
-		st.setLosingHit(true);
-		this.sousArbres.put(fk, st);
-		for (Barcode key : this.sousArbres.keySet()) {
-			SubTrees st1 = this.sousArbres.get(key);
-			if (st1.isLosingHit() == null) {
-				boolean b = true;
-				label : for (Barcode bc : st1.getBc()) {
-					if (this.sousArbres.get(bc).isLosingHit()) {
-						b = false;
-						break label;
-					}
-				}
-				st1.setLosingHit(b);
-				this.sousArbres.put(key, st1);	
+		for (List<PersistentTree> positions : this.parTaille) {
+			for (PersistentTree key : positions) {
+				this.resoudre(key);
 			}
 		}
 	}
+
+	/**
+	 * Calcule le nombre de Grundy d'un arbre découpé, dont tous les sous-arbres sont déjà résolus.
+	 * @param key Arbre à résoudre.
+	 * @see model.ai.Exaustive#valeurs(PersistentTree)
+	 * @see model.ai.Exaustive#mex(int[])
+	 * @since 1.8
+	 * @version 1.3
+	 */
+	private void resoudre(PersistentTree key) {
+		int grundy = this.mex(this.valeurs(key));
+		if (!this.compact) {
+			SubTrees st = this.sousArbres.get(key);
+			st.setGrundy(grundy);
+			st.setLosingHit(grundy == LOSING);
+		}
+		this.table.put(key.getHash(), key.getSize(), grundy);
+		this.save(key.getHash(), key.getSize(), grundy);
+	}
 	
 	/**
-	 * Méthode permettant de générer les coups gagnants issues des sous-arbres de notre <code>Tree</code> courant.	 * 
-	 * @see model.ai.AI#getTree()
-	 * @see model.tree.Tree#prefixeDepthCourse(Node)
-	 * @see model.tree.Tree#getRoot()
-	 * @see model.tree.Tree#delete(Node)
-	 * @see model.tree.Tree#getBarcode()
-	 * @see model.tree.SubTrees#getBc()
-	 * @see model.tree.SubTrees#isLosingHit()
+	 * Retourne le nombre de Grundy d'un arbre s'il figure dans la <code>Tablebase</code> ou dans le <code>SolvedPositionStore</code>.
+	 * @param hash Empreinte canonique de l'arbre.
+	 * @param size Nombre de noeuds de l'arbre.
+	 * @return Le nombre de Grundy, ou <code>SolvedPositionStore.UNKNOWN</code> si l'arbre est absent ou si on n'utilise ni table ni fichier.
+	 * @since 1.6
+	 * @version 1.2
+	 */
+	private int stored(long hash, int size) {
+		int grundy = SolvedPositionStore.UNKNOWN;
+		if (this.tablebase != null) {
+			grundy = this.tablebase.get(hash, size);
+		}
+		if (grundy == Tablebase.UNKNOWN && this.store != null) {
+			grundy = this.store.get(hash, size);
+		}
+		return grundy < PENDING ? grundy : SolvedPositionStore.UNKNOWN;
+	}
+	
+	/**
+	 * Ajoute un arbre résolu au <code>SolvedPositionStore</code>, si on en utilise un.
+	 * @param hash Empreinte canonique de l'arbre.
+	 * @param size Nombre de noeuds de l'arbre.
+	 * @param grundy Nombre de Grundy de l'arbre.
+	 * @throws UncheckedIOException Si l'écriture dans le fichier échoue.
+	 * @since 1.6
+	 * @version 1.1
+	 */
+	private void save(long hash, int size, int grundy) {
+		if (this.store != null) {
+			try {
+				this.store.put(hash, size, grundy);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+	
+	/**
+	 * Retourne le nombre de Grundy d'un arbre, c'est-à-dire le plus petit entier qui n'est la valeur d'aucune des forêts obtenues en jouant.
+	 * @param valeurs Valeur de la forêt obtenue pour chaque coup.
+	 * @return Le nombre de Grundy de l'arbre.
+	 * @throws IllegalStateException Si le nombre de Grundy ne tient pas dans la <code>TranspositionTable</code>.
+	 * @since 1.5
+	 * @version 1.1
+	 */
+	private int mex(int[] valeurs) {
+		boolean[] reached = new boolean[valeurs.length + 1];
+		for (int g : valeurs) {
+			if (g < reached.length) {
+				reached[g] = true;
+			}
+		}
+		int grundy = 0;
+		while (reached[grundy]) {
+			grundy++;
+		}
+		if (grundy >= PENDING) {
+			throw new IllegalStateException("Nombre de Grundy trop grand : " + grundy);
+		}
+		return grundy;
+	}
+	
+	/**
+	 * Calcule la valeur de la forêt obtenue en jouant chaque noeud d'un arbre dont tous les sous-arbres sont résolus.
+	 * Jouer la racine laisse ses fils, de valeur C(racine), le XOR de leurs nombres de Grundy ; jouer un fils v d'un noeud p laisse
+	 * la forêt de p privée de v, à laquelle s'ajoutent les fils de v : R(v) = R(p) XOR g(v) XOR C(v).
+	 * Chaque noeud n'est ainsi consulté qu'une fois dans la <code>TranspositionTable</code>, au lieu d'une fois par forêt le contenant.
+	 * Seul le nombre de Grundy de l'arbre important, on ne joue que sur les représentants des orbites,
+	 * les autres noeuds donnant les mêmes forêts.
+	 * @param key Arbre sur lequel on joue.
+	 * @return Les valeurs des coups joués sur les représentants des orbites, dans l'ordre préfixe.
+	 * @see model.ai.Tablebase#moveValues(CompactTree, int[])
+	 * @see model.tree.PersistentTree#getOrbitCount()
+	 * @since 1.9
+	 * @version 1.12
+	 */
+	private int[] valeurs(PersistentTree key) {
+		int[] valeurs = new int[key.getOrbitCount()];
+		PersistentTree[] stack = new PersistentTree[16];
+		int[] stackValeur = new int[16];
+		int top = 0;
+		stack[top] = key;
+		stackValeur[top++] = this.fils(key);
+		int count = 0;
+		while (top > 0) {
+			PersistentTree t = stack[--top];
+			int valeur = stackValeur[top];
+			stack[top] = null;
+			valeurs[count++] = valeur;
+			if (top + t.getDistinctChildCount() > stack.length) {
+				int capacity = Math.max(stack.length * 2, top + t.getDistinctChildCount());
+				stack = Arrays.copyOf(stack, capacity);
+				stackValeur = Arrays.copyOf(stackValeur, capacity);
+			}
+			for (int i = t.getDistinctChildCount() - 1; i >= 0; i--) {
+				PersistentTree c = t.getDistinctChild(i);
+				stack[top] = c;
+				stackValeur[top++] = valeur ^ this.table.get(c.getHash(), c.getSize()) ^ this.fils(c);
+			}
+		}
+		return valeurs;
+	}
+	
+	/**
+	 * Retourne le XOR des nombres de Grundy des fils d'un arbre, c'est-à-dire la valeur de la forêt obtenue en jouant sa racine.
+	 * @param t Arbre dont les fils sont résolus.
+	 * @return Le XOR, 0 pour une feuille.
+	 * @since 1.9
+	 * @version 1.10
+	 */
+	private int fils(PersistentTree t) {
+		int g = 0;
+		for (int i = 0; i < t.getChildCount(); i++) {
+			PersistentTree c = t.getChild(i);
+			g ^= this.table.get(c.getHash(), c.getSize());
+		}
+		return g;
+	}
+	
+	/**
+	 * Méthode permettant de générer les coups gagnants issues des sous-arbres de notre <code>Tree</code> courant :
+	 * un coup est gagnant si la forêt obtenue a une valeur nulle.
+	 * La valeur n'est calculée que pour les représentants des orbites, comme dans <code>Tablebase#moveValues(CompactTree, int[])</code>,
+	 * le parent d'un représentant étant lui-même un représentant ; elle est ensuite reportée sur chaque noeud de l'orbite,
+	 * de même que le nombre de Grundy de son sous-arbre.
+	 * @see model.ai.AI#getCompactTree()
+	 * @see model.ai.AI#getNode(int)
+	 * @see model.tree.CompactTree#getOrbits()
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.7
 	 */
 	private void generateWiningHits() {
-		for (Node n : this.getTree().prefixeDepthCourse((Node) this.getTree().getRoot())) {
-			if (this.sousArbres.get((new GhostTree((this.getTree().delete(n)))).getBarcode()).isLosingHit()) {
-				super.getWinninghits().add(n);
+		CompactTree ct = this.getCompactTree();
+		long[] hash = ct.getSubtreeHashes();
+		int[] sizes = ct.getSubtreeSizes();
+		int[] orbites = ct.getOrbits();
+		int[] grundy = new int[ct.getSize()];
+		for (int n = 0; n < ct.getSize(); n++) {
+			if (orbites[n] == n) {
+				grundy[n] = this.table.get(hash[n], sizes[n]);
+			}
+		}
+		int[] fils = new int[ct.getSize()];
+		for (int n = 1; n < ct.getSize(); n++) {
+			int p = ct.getParent(n);
+			if (orbites[p] == p) {
+				fils[p] ^= grundy[orbites[n]];
+			}
+		}
+		int[] valeurs = new int[ct.getSize()];
+		for (int n = 0; n < ct.getSize(); n++) {
+			if (orbites[n] == n) {
+				valeurs[n] = n == 0 ? fils[0] : valeurs[ct.getParent(n)] ^ grundy[n] ^ fils[n];
+			}
+		}
+		for (int n = 0; n < ct.getSize(); n++) {
+			grundy[n] = grundy[orbites[n]];
+			valeurs[n] = valeurs[orbites[n]];
+			if (valeurs[n] == LOSING) {
+				super.getWinninghits().add(this.getNode(n));
 			}
 		}
+		this.grundy = grundy;
+		this.moveValues = valeurs;
 	}
 
+	/**
+	 * Tâche découpant en parallèle une partie des arbres d'une même vague, dans le mode parallèle.
+	 * La partie est coupée en deux tant qu'elle contient plus d'un arbre : la profondeur des sous-tâches est logarithmique.
+	 * @author Grégoire
+	 * @date 8 fév. 2016
+	 * @see model.ai.Exaustive#decouper(PersistentTree, Collection)
+	 * @version 1.1
+	 */
+	private class DecoupeTask extends RecursiveTask<List<PersistentTree>> {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Arbres de la vague courante.
+		 */
+		private final List<PersistentTree> vague;
+
+		/**
+		 * Indice du premier arbre à découper.
+		 */
+		private final int from;
+
+		/**
+		 * Indice suivant le dernier arbre à découper.
+		 */
+		private final int to;
+
+		/**
+		 * Constructeur de la tâche découpant les arbres <code>vague[from .. to - 1]</code>.
+		 * @param vague Arbres de la vague courante.
+		 * @param from Indice du premier arbre.
+		 * @param to Indice suivant le dernier arbre.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		DecoupeTask(List<PersistentTree> vague, int from, int to) {
+			this.vague = vague;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Découpe les arbres de la partie.
+		 * @return Les sous-arbres réservés, formant une partie de la vague suivante.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		protected List<PersistentTree> compute() {
+			if (this.to - this.from == 1) {
+				List<PersistentTree> file = new ArrayList<PersistentTree>();
+				Exaustive.this.decouper(this.vague.get(this.from), file);
+				return file;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			DecoupeTask left = new DecoupeTask(this.vague, this.from, middle);
+			left.fork();
+			List<PersistentTree> file = new DecoupeTask(this.vague, middle, this.to).compute();
+			file.addAll(left.join());
+			return file;
+		}
+	}
+
+	/**
+	 * Tâche résolvant en parallèle une partie des arbres d'une même taille, dans le mode parallèle.
+	 * Les forêts obtenues en jouant sur ces arbres ne contiennent que des arbres plus petits, déjà résolus.
+	 * @author Grégoire
+	 * @date 8 fév. 2016
+	 * @see model.ai.Exaustive#resoudre(PersistentTree)
+	 * @version 1.1
+	 */
+	private class ResolutionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Nombre d'arbres en dessous duquel une partie n'est plus coupée.
+		 */
+		private static final int GRAIN = 8;
+
+		/**
+		 * Arbres de même taille.
+		 */
+		private final List<PersistentTree> positions;
+
+		/**
+		 * Indice du premier arbre à résoudre.
+		 */
+		private final int from;
+
+		/**
+		 * Indice suivant le dernier arbre à résoudre.
+		 */
+		private final int to;
+
+		/**
+		 * Constructeur de la tâche résolvant les arbres <code>positions[from .. to - 1]</code>.
+		 * @param positions Arbres de même taille.
+		 * @param from Indice du premier arbre.
+		 * @param to Indice suivant le dernier arbre.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		ResolutionTask(List<PersistentTree> positions, int from, int to) {
+			this.positions = positions;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Résout les arbres de la partie.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		protected void compute() {
+			if (this.to - this.from <= GRAIN) {
+				for (int i = this.from; i < this.to; i++) {
+					Exaustive.this.resoudre(this.positions.get(i));
+				}
+				return;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			RecursiveAction.invokeAll(new ResolutionTask(this.positions, this.from, middle), new ResolutionTask(this.positions, middle, this.to));
+		}
+	}
+
+	/**
+	 * Méthode effectuant la recherche des coups gagnants, de manière séquentielle ou parallèle suivant <code>parallelism</code>.
+	 * @see model.ai.Exaustive#decoupe(PersistentTree)
+	 * @see model.ai.Exaustive#parcourir()
+	 * @see model.ai.Exaustive#generateWiningHits()
+	 * @since 1.0
+	 * @version 1.8
+	 */
 	public void compute() {
-		this.sousArbres = new TreeMap<Barcode, SubTrees>();
-		this.decoupe(new GhostTree((Node) getTree().getRoot()));
-		this.parcourir();
+		this.parTaille = new ArrayList<List<PersistentTree>>();
+		PersistentTree start = PersistentTree.fromCompactTree(this.getCompactTree());
+		if (this.parallelism == 1) {
+			this.sousArbres = new HashMap<PersistentTree, SubTrees>();
+			this.table = new TranspositionTable();
+			this.decoupe(start);
+			this.parcourir();
+		} else {
+			this.sousArbres = new ConcurrentHashMap<PersistentTree, SubTrees>();
+			this.table = new ConcurrentTranspositionTable(this.getCompactTree().getSize());
+			ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+			try {
+				this.table.put(start.getHash(), start.getSize(), PENDING);
+				List<PersistentTree> vague = new ArrayList<PersistentTree>();
+				vague.add(start);
+				while (!vague.isEmpty()) {
+					List<PersistentTree> suivante = pool.invoke(new DecoupeTask(vague, 0, vague.size()));
+					for (PersistentTree key : vague) {
+						this.ranger(key);
+					}
+					vague = suivante;
+				}
+				for (List<PersistentTree> positions : this.parTaille) {
+					if (!positions.isEmpty()) {
+						pool.invoke(new ResolutionTask(positions, 0, positions.size()));
+					}
+				}
+			} finally {
+				pool.shutdown();
+			}
+		}
 		this.generateWiningHits();
-		
 	}
 }
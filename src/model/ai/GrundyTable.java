@@ -0,0 +1,224 @@
+package model.ai;
+
+import model.tree.CompactTree;
+import model.tree.GhostTree;
+import model.tree.Tree;
+
+/**
+ * Classe <code>GrundyTable</code> donnant le nombre de Grundy des arbres et des forêts, ainsi que la valeur de chacun de leurs coups,
+ * en mémorisant les résultats d'une question à l'autre.
+ * Le nombre de Grundy de chaque sous-arbre rencontré est rangé dans une <code>TranspositionTable</code> indexée par empreinte canonique :
+ * une position déjà vue, dans une autre partie ou comme composante d'une autre forêt, n'est jamais résolue une seconde fois.
+ * Hackendot étant un jeu impartial, la valeur d'une forêt est le XOR des nombres de Grundy de ses arbres (Sprague-Grundy),
+ * ce qui permet de combiner les résultats mémorisés.
+ * Les arbres inconnus sont résolus par <code>LinearUlehla</code>, qui calcule en une fois le nombre de Grundy de tous leurs sous-arbres.
+ * 
+ * V 1.3 : 
+ * <ul>
+ * 	<li>Seuls les nombres de Grundy inférieurs à <code>Exaustive.PENDING</code> sont mémorisés ou lus dans la table :
+ * 	cette valeur, égale à <code>MAX_VALUE</code>, y marque un arbre en attente et ne doit jamais être prise pour un nombre de Grundy.</li>
+ * </ul>
+ * 
+ * V 1.2 : 
+ * <ul>
+ * 	<li>La table partagée est une <code>PositionTable</code>, afin d'accepter celle d'un <code>Exaustive</code> parallèle.</li>
+ * </ul>
+ * 
+ * V 1.1 : 
+ * <ul>
+ * 	<li>Les sous-arbres sont cherchés dans la table par empreinte et nombre de noeuds.</li>
+ * </ul>
+ * @author Grégoire
+ * @date 12 fév. 2016
+ * @see model.ai.TranspositionTable
+ * @see model.ai.LinearUlehla#getGrundy()
+ * @see model.ai.Tablebase#moveValues(CompactTree, int[])
+ * @version 1.3
+ */
+public class GrundyTable {
+
+	/**
+	 * Table des nombres de Grundy des arbres déjà résolus.
+	 */
+	private final PositionTable table;
+
+	/**
+	 * Nombre de questions auxquelles la table a répondu sans résoudre d'arbre.
+	 */
+	private int hits;
+
+	/**
+	 * Nombre de questions ayant nécessité la résolution d'un arbre.
+	 */
+	private int misses;
+
+	/**
+	 * Constructeur de la classe <code>GrundyTable</code>, partant d'une table vide.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public GrundyTable() {
+		this(new TranspositionTable());
+	}
+
+	/**
+	 * Constructeur de la classe <code>GrundyTable</code> partageant une table existante,
+	 * par exemple celle remplie par <code>Exaustive#compute()</code>.
+	 * @param table Table des nombres de Grundy, indexée par empreinte canonique, qui ne doit contenir aucune position en attente.
+	 * @see model.ai.Exaustive#getTable()
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public GrundyTable(PositionTable table) {
+		this.table = table;
+	}
+
+	/**
+	 * Retourne la table des nombres de Grundy mémorisés.
+	 * @return La table, partagée.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public PositionTable getTable() {
+		return this.table;
+	}
+
+	/**
+	 * Retourne le nombre de questions auxquelles la table a répondu sans résoudre d'arbre.
+	 * @return Le nombre de succès.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Retourne le nombre de questions ayant nécessité la résolution d'un arbre.
+	 * @return Le nombre d'échecs.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Retourne le nombre de Grundy d'un arbre.
+	 * @param t Arbre dont on cherche le nombre de Grundy.
+	 * @return Le nombre de Grundy, nul si et seulement si l'arbre est perdant pour le joueur qui doit jouer.
+	 * @see model.tree.CompactTree#fromTree(Tree)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int grundy(Tree t) {
+		return this.grundy(CompactTree.fromTree(t));
+	}
+
+	/**
+	 * Retourne le nombre de Grundy d'un arbre.
+	 * @param ct Arbre dont on cherche le nombre de Grundy.
+	 * @return Le nombre de Grundy, nul si et seulement si l'arbre est perdant pour le joueur qui doit jouer.
+	 * @since 1.0
+	 * @version 1.2
+	 */
+	public int grundy(CompactTree ct) {
+		int grundy = this.table.get(ct.getCanonicalHash(), ct.getSize());
+		if (grundy != PositionTable.UNKNOWN && grundy < Exaustive.PENDING) {
+			this.hits++;
+			return grundy;
+		}
+		return this.subtreeGrundy(ct, false)[0];
+	}
+
+	/**
+	 * Retourne la valeur d'une forêt, c'est-à-dire le XOR des nombres de Grundy de ses arbres.
+	 * @param forest Forêt, chaque fils de la racine "fantôme" étant la racine d'un arbre.
+	 * @return La valeur de la forêt, nulle si et seulement si elle est perdante pour le joueur qui doit jouer.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int grundy(GhostTree forest) {
+		return this.subtreeGrundy(CompactTree.fromTree(forest), true)[0];
+	}
+
+	/**
+	 * Retourne la valeur de la forêt obtenue en jouant chaque noeud d'un arbre.
+	 * @param t Arbre sur lequel on joue.
+	 * @return Les valeurs des coups, indexées suivant <code>CompactTree#fromTree(Tree)</code>, c'est-à-dire dans l'ordre préfixe :
+	 * un coup est gagnant si et seulement si sa valeur est nulle.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int[] moveValues(Tree t) {
+		return this.moveValues(CompactTree.fromTree(t));
+	}
+
+	/**
+	 * Retourne la valeur de la forêt obtenue en jouant chaque noeud d'un arbre.
+	 * @param ct Arbre sur lequel on joue.
+	 * @return Les valeurs des coups, indexées suivant <code>ct</code> : un coup est gagnant si et seulement si sa valeur est nulle.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int[] moveValues(CompactTree ct) {
+		return Tablebase.moveValues(ct, this.subtreeGrundy(ct, false));
+	}
+
+	/**
+	 * Retourne la valeur de la forêt obtenue en jouant chaque noeud d'une forêt.
+	 * Jouer un noeud d'un arbre remplace son nombre de Grundy g par la valeur v du coup dans cet arbre :
+	 * la forêt passe de la valeur G à G XOR g XOR v, ce qui revient à jouer dans l'arbre ayant la racine "fantôme" pour racine.
+	 * @param forest Forêt sur laquelle on joue.
+	 * @return Les valeurs des coups, indexées suivant <code>CompactTree#fromTree(Tree)</code>, la case 0 de la racine "fantôme"
+	 * contenant la valeur de la forêt elle-même, qui n'est pas un coup.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int[] moveValues(GhostTree forest) {
+		CompactTree ct = CompactTree.fromTree(forest);
+		return Tablebase.moveValues(ct, this.subtreeGrundy(ct, true));
+	}
+
+	/**
+	 * Retourne le nombre de Grundy du sous-arbre issu de chaque noeud, en les lisant dans la table si tous y figurent,
+	 * et sinon en résolvant l'arbre avec <code>LinearUlehla</code> puis en mémorisant tous ses sous-arbres.
+	 * Les nombres de Grundy égaux ou supérieurs à <code>Exaustive.PENDING</code>, qui marque dans la table un arbre en attente,
+	 * ne sont pas mémorisés, et une telle valeur lue dans la table est considérée comme absente.
+	 * @param ct Arbre, ou forêt rattachée à une racine "fantôme".
+	 * @param ghost true si la racine de <code>ct</code> est une racine "fantôme", jamais mémorisée.
+	 * @return Les nombres de Grundy, indexés suivant <code>ct</code> ; pour une forêt, la case 0 contient la valeur de la forêt.
+	 * @see model.ai.Exaustive#PENDING
+	 * @since 1.0
+	 * @version 1.2
+	 */
+	private int[] subtreeGrundy(CompactTree ct, boolean ghost) {
+		long[] hash = ct.getSubtreeHashes();
+		int[] sizes = ct.getSubtreeSizes();
+		int[] grundy = new int[ct.getSize()];
+		int from = ghost ? 1 : 0;
+		boolean known = true;
+		for (int i = from; i < ct.getSize() && known; i++) {
+			grundy[i] = this.table.get(hash[i], sizes[i]);
+			known = grundy[i] != PositionTable.UNKNOWN && grundy[i] < Exaustive.PENDING;
+		}
+		if (known) {
+			this.hits++;
+		} else {
+			this.misses++;
+			grundy = new LinearUlehla(ct).getGrundy().clone();
+			for (int i = from; i < ct.getSize(); i++) {
+				if (grundy[i] < Exaustive.PENDING) {
+					this.table.put(hash[i], sizes[i], grundy[i]);
+				}
+			}
+		}
+		if (ghost) {
+			grundy[0] = 0;
+			for (int c = ct.getFirstChild(0); c != CompactTree.NONE; c = ct.getNextSibling(c)) {
+				grundy[0] ^= grundy[c];
+			}
+		}
+		return grundy;
+	}
+}
@@ -0,0 +1,333 @@
+package model.ai;
+
+import java.util.Arrays;
+
+import model.tree.CompactTree;
+import model.tree.Tree;
+
+/**
+ * Classe représentant une version linéaire de la méthode <code>Ulehla</code>, travaillant uniquement sur les tableaux d'un <code>CompactTree</code>.
+ * Plutôt que de découper l'arbre tour après tour, on calcule en un seul parcours suffixe le nombre de Grundy du sous-arbre issu de chaque noeud.
+ * Si S(v) est l'ensemble des valeurs des forêts obtenues en jouant dans le sous-arbre de v et C(v) le XOR des nombres de Grundy de ses fils :
+ * <ul>
+ * 	<li>S(v) = {C(v)} union, pour chaque fils c, S(c) XOR C(v) XOR g(c) ;</li>
+ * 	<li>g(v) = mex S(v).</li>
+ * </ul>
+ * Chaque ensemble est un arbre binaire de préfixes portant un XOR différé : la fusion des ensembles des fils dans celui du parent
+ * coûte au total O(n log n), et le plus petit entier absent se lit en descendant une seule branche.
+ * Les coups gagnants sont enfin ceux menant à une forêt de valeur nulle, rangés dans l'ordre préfixe.
+ * @author Grégoire
+ * @date 7 fév. 2016
+ * @see model.ai.Ulehla
+ * @see model.ai.Tablebase#moveValues(CompactTree, int[])
+ * @version 1.0
+ */
+public class LinearUlehla extends AI {
+
+	/**
+	 * Indice représentant l'absence de noeud dans les arbres de préfixes, la case 0 n'étant jamais utilisée.
+	 */
+	private static final int EMPTY = 0;
+
+	/**
+	 * Nombre de bits des valeurs stockées : toutes les valeurs sont strictement inférieures à <code>1 << bits</code>.
+	 */
+	private int bits;
+
+	/**
+	 * Fils "0" de chaque noeud des arbres de préfixes, ou noeud libre suivant pour un noeud libéré.
+	 */
+	private int[] zero;
+
+	/**
+	 * Fils "1" de chaque noeud des arbres de préfixes.
+	 */
+	private int[] one;
+
+	/**
+	 * Nombre de valeurs présentes sous chaque noeud des arbres de préfixes.
+	 */
+	private int[] count;
+
+	/**
+	 * XOR restant à appliquer aux valeurs présentes sous chaque noeud des arbres de préfixes.
+	 */
+	private int[] tag;
+
+	/**
+	 * Nombre de cases utilisées dans les tableaux des arbres de préfixes.
+	 */
+	private int used;
+
+	/**
+	 * Premier noeud libéré pouvant être réutilisé, <code>EMPTY</code> s'il n'y en a pas.
+	 */
+	private int free;
+
+	/**
+	 * Chemin parcouru lors d'un ajout, réutilisé d'un ajout à l'autre.
+	 */
+	private int[] path;
+
+	/**
+	 * Nombre de Grundy du sous-arbre issu de chaque noeud.
+	 */
+	private int[] grundy;
+
+	/**
+	 * Valeur de la forêt obtenue en jouant chaque noeud.
+	 */
+	private int[] moveValues;
+
+	/**
+	 * Constructeur de la classe <code>LinearUlehla</code>, calculant directement les coups gagnants.
+	 * @param t <code>Tree</code> sur lequel on effectue notre algortihme.
+	 * @see model.ai.LinearUlehla#compute()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public LinearUlehla(Tree t) {
+		super(t);
+		this.compute();
+	}
+
+	/**
+	 * Constructeur de la classe <code>LinearUlehla</code> travaillant directement sur un <code>CompactTree</code>.
+	 * @param ct <code>CompactTree</code> sur lequel on effectue notre algortihme.
+	 * @see model.ai.AI#AI(CompactTree)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public LinearUlehla(CompactTree ct) {
+		super(ct);
+		this.compute();
+	}
+
+	/**
+	 * Retourne le nombre de Grundy du sous-arbre issu de chaque noeud, la case 0 étant celui de l'arbre entier.
+	 * @return Les nombres de Grundy, indexés suivant le <code>CompactTree</code>.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int[] getGrundy() {
+		return this.grundy;
+	}
+
+	/**
+	 * Retourne la valeur de la forêt obtenue en jouant chaque noeud : un coup est gagnant si et seulement si elle est nulle.
+	 * @return Les valeurs des coups, indexées suivant le <code>CompactTree</code>.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int[] getMoveValues() {
+		return this.moveValues;
+	}
+
+	/**
+	 * Calcule les nombres de Grundy de tous les sous-arbres dans l'ordre suffixe, afin de traiter les fils avant leur parent
+	 * tout en ne gardant en mémoire que les ensembles des noeuds du chemin courant, puis les coups gagnants.
+	 * Les arbres de préfixes sont libérés à la fin du calcul.
+	 * @see model.ai.LinearUlehla#merge(int, int, int)
+	 * @see model.ai.LinearUlehla#mex(int)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private void compute() {
+		CompactTree ct = this.getCompactTree();
+		int n = ct.getSize();
+		this.bits = 32 - Integer.numberOfLeadingZeros(n);
+		this.zero = new int[2 * n + 2];
+		this.one = new int[this.zero.length];
+		this.count = new int[this.zero.length];
+		this.tag = new int[this.zero.length];
+		this.used = 1;
+		this.free = EMPTY;
+		this.path = new int[this.bits + 1];
+		this.grundy = new int[n];
+		// set[v] accumule les S(c) XOR g(c) des fils déjà traités, children[v] le XOR de leurs nombres de Grundy.
+		int[] set = new int[n];
+		int[] children = new int[n];
+		for (int v : ct.suffixeDepthCourse()) {
+			int p = ct.getParent(v);
+			int s = set[v];
+			if (s == EMPTY) {
+				// Une feuille vaut 1 : on ajoute directement 0 XOR 1 à l'ensemble du parent.
+				this.grundy[v] = 1;
+				if (p != CompactTree.NONE) {
+					set[p] = this.insert(set[p], 1);
+				}
+			} else {
+				this.tag[s] ^= children[v];
+				s = this.insert(s, children[v]);
+				this.grundy[v] = this.mex(s);
+				if (p != CompactTree.NONE) {
+					this.tag[s] ^= this.grundy[v];
+					set[p] = this.merge(set[p], s, this.bits - 1);
+				}
+			}
+			if (p != CompactTree.NONE) {
+				children[p] ^= this.grundy[v];
+			}
+		}
+		this.zero = null;
+		this.one = null;
+		this.count = null;
+		this.tag = null;
+		this.path = null;
+		this.moveValues = Tablebase.moveValues(ct, this.grundy);
+		for (int v = 0; v < n; v++) {
+			if (this.moveValues[v] == 0) {
+				super.getWinninghits().add(this.getNode(v));
+			}
+		}
+	}
+
+	/**
+	 * Ajoute une valeur à un ensemble.
+	 * @param root Racine de l'arbre de préfixes de l'ensemble, <code>EMPTY</code> pour l'ensemble vide.
+	 * @param value Valeur à ajouter.
+	 * @return La racine de l'ensemble obtenu.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private int insert(int root, int value) {
+		int[] path = this.path;
+		if (root == EMPTY) {
+			root = this.allocate();
+		}
+		int x = root;
+		for (int bit = this.bits - 1; bit >= 0; bit--) {
+			path[bit + 1] = x;
+			this.push(x, bit);
+			int child = ((value >>> bit) & 1) == 0 ? this.zero[x] : this.one[x];
+			if (child == EMPTY) {
+				child = this.allocate();
+				if (((value >>> bit) & 1) == 0) {
+					this.zero[x] = child;
+				} else {
+					this.one[x] = child;
+				}
+			}
+			x = child;
+		}
+		if (this.count[x] == 0) {
+			this.count[x] = 1;
+			for (int bit = 0; bit < this.bits; bit++) {
+				this.count[path[bit + 1]]++;
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Fusionne deux ensembles, le second étant détruit.
+	 * @param a Racine du premier ensemble.
+	 * @param b Racine du second ensemble.
+	 * @param bit Bit départageant les fils des deux racines, -1 pour des feuilles.
+	 * @return La racine de l'union des deux ensembles.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private int merge(int a, int b, int bit) {
+		if (a == EMPTY) {
+			return b;
+		}
+		if (b == EMPTY) {
+			return a;
+		}
+		if (bit >= 0) {
+			this.push(a, bit);
+			this.push(b, bit);
+			this.zero[a] = this.merge(this.zero[a], this.zero[b], bit - 1);
+			this.one[a] = this.merge(this.one[a], this.one[b], bit - 1);
+			this.count[a] = this.count[this.zero[a]] + this.count[this.one[a]];
+		}
+		this.release(b);
+		return a;
+	}
+
+	/**
+	 * Retourne le plus petit entier positif ou nul absent d'un ensemble, en évitant à chaque niveau les sous-arbres complets.
+	 * @param root Racine de l'ensemble, non vide.
+	 * @return Le plus petit entier absent.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private int mex(int root) {
+		int result = 0;
+		int x = root;
+		for (int bit = this.bits - 1; bit >= 0 && x != EMPTY; bit--) {
+			this.push(x, bit);
+			if (this.count[this.zero[x]] == 1 << bit) {
+				result |= 1 << bit;
+				x = this.one[x];
+			} else {
+				x = this.zero[x];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Applique le XOR différé d'un noeud à ses fils, en les échangeant si le bit qu'ils départagent est concerné.
+	 * @param x Noeud interne.
+	 * @param bit Bit départageant les fils de <code>x</code>.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private void push(int x, int bit) {
+		int t = this.tag[x];
+		if (t == 0) {
+			return;
+		}
+		if (((t >>> bit) & 1) != 0) {
+			int c = this.zero[x];
+			this.zero[x] = this.one[x];
+			this.one[x] = c;
+		}
+		if (bit > 0) {
+			this.tag[this.zero[x]] ^= t;
+			this.tag[this.one[x]] ^= t;
+		}
+		this.tag[x] = 0;
+	}
+
+	/**
+	 * Retourne un noeud vide, en réutilisant si possible un noeud libéré.
+	 * @return L'indice du noeud.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private int allocate() {
+		int x;
+		if (this.free != EMPTY) {
+			x = this.free;
+			this.free = this.zero[x];
+		} else {
+			if (this.used == this.zero.length) {
+				int capacity = this.used * 2;
+				this.zero = Arrays.copyOf(this.zero, capacity);
+				this.one = Arrays.copyOf(this.one, capacity);
+				this.count = Arrays.copyOf(this.count, capacity);
+				this.tag = Arrays.copyOf(this.tag, capacity);
+			}
+			x = this.used++;
+		}
+		this.zero[x] = EMPTY;
+		this.one[x] = EMPTY;
+		this.count[x] = 0;
+		this.tag[x] = 0;
+		return x;
+	}
+
+	/**
+	 * Libère un noeud afin qu'il soit réutilisé.
+	 * @param x Noeud libéré.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private void release(int x) {
+		this.zero[x] = this.free;
+		this.free = x;
+	}
+}
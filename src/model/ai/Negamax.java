@@ -0,0 +1,298 @@
+package model.ai;
+
+import java.util.Arrays;
+
+import model.tree.CompactTree;
+import model.tree.Tree;
+
+/**
+ * Classe représentant la méthode <code>Negamax</code>.
+ * Contrairement à <code>Exaustive</code>, qui énumère toutes les positions atteignables avant de les résoudre,
+ * cette méthode effectue une recherche en profondeur : une forêt est gagnante dès que l'un de ses coups mène à une forêt perdante,
+ * on arrête alors d'examiner ses autres coups. L'issue de chaque forêt résolue est conservée dans une <code>TranspositionTable</code>,
+ * seul le chemin en cours étant gardé en mémoire.
+ * Les coups les moins coûteux sont essayés en premier : les feuilles, puis les noeuds les plus proches des racines.
+ * 
+ * V 1.2 :
+ * <ul>
+ * 	<li>Les forêts sont identifiées dans la <code>TranspositionTable</code> par leur empreinte et leur nombre de noeuds.</li>
+ * </ul>
+ * 
+ * V 1.1 :
+ * <ul>
+ * 	<li>La recherche utilise une pile explicite et n'est plus limitée par la taille de la pile d'appels.</li>
+ * </ul>
+ * @author Grégoire
+ * @date 2 fév. 2016
+ * @see model.ai.Exaustive
+ * @version 1.2
+ */
+public class Negamax extends AI {
+
+	/**
+	 * Valeur stockée dans la <code>TranspositionTable</code> pour une forêt perdante pour le joueur qui doit jouer.
+	 */
+	static final int LOSING = 0;
+
+	/**
+	 * Valeur stockée dans la <code>TranspositionTable</code> pour une forêt gagnante pour le joueur qui doit jouer.
+	 */
+	static final int WINNING = 1;
+
+	/**
+	 * <code>TranspositionTable</code> contenant l'issue de chaque forêt résolue.
+	 */
+	private TranspositionTable table;
+
+	/**
+	 * Nombre de forêts effectivement développées lors du dernier <code>compute()</code>.
+	 */
+	private long explored;
+
+	/**
+	 * Constructeur de la classe <code>Negamax</code>.
+	 * @param t <code>Tree</code> avec lequel on joue.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public Negamax(Tree t) {
+		super(t);
+	}
+
+	/**
+	 * Constructeur de la classe <code>Negamax</code> travaillant directement sur un <code>CompactTree</code>.
+	 * @param ct <code>CompactTree</code> avec lequel on joue.
+	 * @see model.ai.AI#AI(CompactTree)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public Negamax(CompactTree ct) {
+		super(ct);
+	}
+
+	/**
+	 * Retourne la <code>TranspositionTable</code> contenant l'issue des forêts résolues.
+	 * @return La table des forêts, <code>null</code> avant <code>compute()</code>.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public TranspositionTable getTable() {
+		return this.table;
+	}
+
+	/**
+	 * Retourne le nombre de forêts développées lors du dernier <code>compute()</code>.
+	 * @return Le nombre de forêts développées.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public long getExplored() {
+		return this.explored;
+	}
+
+	/**
+	 * Méthode effectuant la recherche des coups gagnants.
+	 * Chaque coup de l'arbre de départ est évalué entièrement afin d'obtenir tous les coups gagnants,
+	 * les coupures n'ont lieu que dans les forêts suivantes.
+	 * @see model.ai.Negamax#isWinning(CompactTree, long)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public void compute() {
+		this.table = new TranspositionTable();
+		this.explored = 0;
+		CompactTree ct = this.getCompactTree();
+		long[] moves = ct.getMoveHashes();
+		for (int n = 0; n < ct.getSize(); n++) {
+			if (!this.isWinning(ct.delete(n), moves[n])) {
+				super.getWinninghits().add(this.getNode(n));
+			}
+		}
+	}
+
+	/**
+	 * Indique si la forêt donnée est gagnante pour le joueur qui doit jouer.
+	 * On regarde d'abord si l'un des coups mène à une forêt déjà connue comme perdante,
+	 * puis on développe les autres coups dans l'ordre donné par <code>order(CompactTree, int)</code>
+	 * jusqu'à en trouver un menant à une forêt perdante, une forêt pouvant entre-temps avoir été résolue lors du développement d'un coup précédent.
+	 * La recherche utilise une pile explicite de <code>Frame</code>, une par forêt en cours de développement :
+	 * sa profondeur, égale à la longueur de la partie, n'est donc pas limitée par la pile d'appels.
+	 * @param forest Forêt, rattachée à une racine "fantôme" d'indice 0.
+	 * @param hash Empreinte canonique de la forêt.
+	 * @return True si la forêt est gagnante.
+	 * @see model.tree.CompactTree#getMoveHashes()
+	 * @see model.tree.CompactTree#getMoveSizes()
+	 * @see model.tree.CompactTree#delete(int)
+	 * @see model.ai.Negamax.Frame
+	 * @since 1.0
+	 * @version 1.2
+	 */
+	private boolean isWinning(CompactTree forest, long hash) {
+		int known = this.table.get(hash, forest.getSize());
+		if (known != TranspositionTable.UNKNOWN) {
+			return known == WINNING;
+		}
+		Frame[] stack = new Frame[16];
+		int top = 0;
+		stack[top++] = this.open(forest, hash);
+		boolean result = false;
+		boolean resolved = false;
+		while (top > 0) {
+			Frame f = stack[top - 1];
+			boolean winning = f.winning;
+			if (resolved) {
+				// Le coup précédemment développé mène à une forêt perdante : la forêt courante est gagnante.
+				winning = !result;
+				resolved = false;
+			}
+			Frame child = null;
+			while (!winning && child == null && f.next < f.order.length) {
+				int n = f.order[f.next++];
+				int value = this.table.get(f.moves[n], f.sizes[n]);
+				if (value == TranspositionTable.UNKNOWN) {
+					child = this.open(f.forest.delete(n), f.moves[n]);
+				} else {
+					winning = value == LOSING;
+				}
+			}
+			if (child != null) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = child;
+			} else {
+				this.table.put(f.hash, f.forest.getSize(), winning ? WINNING : LOSING);
+				stack[--top] = null;
+				result = winning;
+				resolved = true;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Commence le développement d'une forêt : on regarde si l'un des coups mène à une forêt déjà connue comme perdante,
+	 * sinon on calcule l'ordre dans lequel les coups seront essayés.
+	 * @param forest Forêt, rattachée à une racine "fantôme" d'indice 0.
+	 * @param hash Empreinte canonique de la forêt.
+	 * @return L'état de la forêt en cours de développement.
+	 * @since 1.1
+	 * @version 1.1
+	 */
+	private Frame open(CompactTree forest, long hash) {
+		this.explored++;
+		Frame f = new Frame(forest, hash, forest.getMoveHashes(), forest.getMoveSizes());
+		for (int n = 1; n < forest.getSize() && !f.winning; n++) {
+			f.winning = this.table.get(f.moves[n], f.sizes[n]) == LOSING;
+		}
+		f.order = f.winning ? new int[0] : Negamax.order(forest, 1);
+		return f;
+	}
+
+	/**
+	 * Retourne les coups d'un arbre dans l'ordre où ils sont essayés :
+	 * les feuilles d'abord, puis les autres noeuds, chacun de ces deux groupes étant rangé par profondeur croissante.
+	 * Jouer une feuille ou un noeud proche d'une racine supprime peu de noeuds ou un arbre entier,
+	 * la forêt obtenue est donc rapide à évaluer.
+	 * @param t Arbre sur lequel on joue.
+	 * @param first Indice du premier noeud jouable : 1 si la racine est une racine "fantôme", 0 sinon.
+	 * @return Les indices des noeuds jouables, dans l'ordre.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static int[] order(CompactTree t, int first) {
+		int size = t.getSize();
+		int[] depth = new int[size];
+		int maxDepth = 0;
+		for (int i = 1; i < size; i++) {
+			depth[i] = depth[t.getParent(i)] + 1;
+			maxDepth = Math.max(maxDepth, depth[i]);
+		}
+		int[] start = new int[2 * (maxDepth + 1) + 1];
+		for (int i = first; i < size; i++) {
+			start[Negamax.bucket(t, depth, maxDepth, i) + 1]++;
+		}
+		for (int b = 1; b < start.length; b++) {
+			start[b] += start[b - 1];
+		}
+		int[] order = new int[size - first];
+		for (int i = first; i < size; i++) {
+			order[start[Negamax.bucket(t, depth, maxDepth, i)]++] = i;
+		}
+		return order;
+	}
+
+	/**
+	 * Retourne le rang d'un noeud pour <code>order(CompactTree, int)</code> : les feuilles avant les autres noeuds, puis par profondeur.
+	 * @param t Arbre sur lequel on joue.
+	 * @param depth Profondeur de chaque noeud.
+	 * @param maxDepth Profondeur maximale de l'arbre.
+	 * @param node Indice du noeud.
+	 * @return Le rang du noeud.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static int bucket(CompactTree t, int[] depth, int maxDepth, int node) {
+		return t.getFirstChild(node) == CompactTree.NONE ? depth[node] : maxDepth + 1 + depth[node];
+	}
+
+	/**
+	 * Forêt en cours de développement dans la pile explicite de <code>isWinning(CompactTree, long)</code>.
+	 * @author Grégoire
+	 * @date 8 fév. 2016
+	 * @version 1.1
+	 */
+	private static class Frame {
+
+		/**
+		 * Forêt développée.
+		 */
+		final CompactTree forest;
+
+		/**
+		 * Empreinte canonique de la forêt.
+		 */
+		final long hash;
+
+		/**
+		 * Empreinte de la forêt obtenue en jouant chaque noeud.
+		 */
+		final long[] moves;
+
+		/**
+		 * Nombre de noeuds de la forêt obtenue en jouant chaque noeud.
+		 */
+		final int[] sizes;
+
+		/**
+		 * Noeuds à essayer, dans l'ordre.
+		 */
+		int[] order;
+
+		/**
+		 * Position dans <code>order</code> du prochain coup à essayer.
+		 */
+		int next;
+
+		/**
+		 * Indique si un coup menant à une forêt perdante a déjà été trouvé.
+		 */
+		boolean winning;
+
+		/**
+		 * Constructeur d'une forêt en cours de développement.
+		 * @param forest Forêt développée.
+		 * @param hash Empreinte canonique de la forêt.
+		 * @param moves Empreinte de la forêt obtenue en jouant chaque noeud.
+		 * @param sizes Nombre de noeuds de la forêt obtenue en jouant chaque noeud.
+		 * @since 1.0
+		 * @version 1.1
+		 */
+		Frame(CompactTree forest, long hash, long[] moves, int[] sizes) {
+			this.forest = forest;
+			this.hash = hash;
+			this.moves = moves;
+			this.sizes = sizes;
+		}
+	}
+}
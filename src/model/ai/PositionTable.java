@@ -0,0 +1,73 @@
+package model.ai;
+
+/**
+ * Interface <code>PositionTable</code> associant à une position, identifiée par son empreinte canonique sur 64 bits et son nombre de noeuds,
+ * une valeur tenant sur 16 bits (gagnant/perdant, nombre de Grundy, ...).
+ * Deux arbres de tailles différentes ayant la même empreinte sont deux positions distinctes.
+ * @author Grégoire
+ * @date 20 fév. 2016
+ * @see model.ai.TranspositionTable
+ * @see model.ai.ConcurrentTranspositionTable
+ * @see model.tree.Barcode#getCanonicalHash()
+ * @version 1.0
+ */
+public interface PositionTable {
+
+	/**
+	 * Valeur retournée par <code>get(long, int)</code> lorsque la position est absente de la table.
+	 */
+	public static final int UNKNOWN = -1;
+
+	/**
+	 * Plus grande valeur pouvant être stockée dans la table.
+	 */
+	public static final int MAX_VALUE = Character.MAX_VALUE;
+
+	/**
+	 * Retourne la valeur associée à une position.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @return La valeur associée, comprise entre 0 et <code>MAX_VALUE</code>, ou <code>UNKNOWN</code> si la position est absente.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int get(long key, int size);
+
+	/**
+	 * Associe une valeur à une position, en remplaçant l'éventuelle valeur précédente.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @param value Valeur comprise entre 0 et <code>MAX_VALUE</code>.
+	 * @throws IllegalArgumentException Si la valeur ne tient pas sur 16 bits.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public void put(long key, int size, int value);
+
+	/**
+	 * Associe une valeur à une position si elle est absente de la table.
+	 * Une implémentation partagée entre plusieurs threads doit faire le test et l'ajout de manière atomique.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @param value Valeur comprise entre 0 et <code>MAX_VALUE</code> à associer si la position est absente.
+	 * @return La valeur précédemment associée, ou <code>UNKNOWN</code> si la position était absente.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int putIfAbsent(long key, int size, int value);
+
+	/**
+	 * Retourne le nombre de positions présentes dans la table.
+	 * @return Le nombre de positions.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int size();
+
+	/**
+	 * Vide la table.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public void clear();
+}
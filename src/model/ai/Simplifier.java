@@ -0,0 +1,240 @@
+package model.ai;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.tree.CompactTree;
+import model.tree.GhostTree;
+import model.tree.Node;
+
+/**
+ * Classe <code>Simplifier</code> simplifiant une forêt, représentée par un <code>GhostTree</code>, avant sa résolution.
+ * La valeur d'une forêt étant le XOR des nombres de Grundy de ses arbres (Sprague-Grundy) :
+ * <ul>
+ * 	<li>deux arbres isomorphes s'annulent (G XOR G = 0) et sont retirés ;</li>
+ * 	<li>les arbres de forme connue sont remplacés par leur nombre de Grundy : un chemin de n noeuds vaut n,
+ * 	une étoile dont la racine a au moins un fils, tous des feuilles, vaut 2 ;</li>
+ * 	<li>seuls les arbres restants, irréductibles, sont résolus par <code>Exaustive</code> ou <code>LinearUlehla</code>, arbre par arbre.</li>
+ * </ul>
+ * Le nombre de noeuds éliminés par ces règles est conservé afin d'en mesurer l'effet.
+ * 
+ * V 1.1 : 
+ * <ul>
+ * 	<li>La valeur d'un arbre résolu par <code>Exaustive</code> est lue dans sa table par empreinte et nombre de noeuds.</li>
+ * </ul>
+ * @author Grégoire
+ * @date 11 fév. 2016
+ * @see model.tree.GhostTree
+ * @see model.ai.Exaustive
+ * @see model.ai.LinearUlehla
+ * @version 1.1
+ */
+public class Simplifier {
+
+	/**
+	 * Valeur indiquant qu'un arbre n'a pas de forme connue.
+	 */
+	static final int UNKNOWN = -1;
+
+	/**
+	 * Nombre de Grundy d'une étoile dont la racine a au moins un fils.
+	 */
+	static final int STAR = 2;
+
+	/**
+	 * Racines des arbres irréductibles, dans l'ordre de la forêt.
+	 */
+	private final List<Node> remainder;
+
+	/**
+	 * <code>CompactTree</code> des arbres irréductibles, dans le même ordre que <code>remainder</code>.
+	 */
+	private final List<CompactTree> remainderTrees;
+
+	/**
+	 * XOR des nombres de Grundy des arbres de forme connue, les paires annulées valant 0.
+	 */
+	private int knownValue;
+
+	/**
+	 * Nombre de noeuds éliminés par la simplification.
+	 */
+	private int eliminatedNodes;
+
+	/**
+	 * Nombre de paires d'arbres isomorphes annulées.
+	 */
+	private int cancelledPairs;
+
+	/**
+	 * Nombre d'arbres remplacés par leur nombre de Grundy.
+	 */
+	private int closedForms;
+
+	/**
+	 * Constructeur de la classe <code>Simplifier</code>, effectuant directement la simplification.
+	 * Les <code>Node</code> de la forêt ne sont pas modifiés.
+	 * @param forest Forêt à simplifier, chaque fils de la racine "fantôme" étant la racine d'un arbre.
+	 * @see model.ai.Simplifier#simplify(List)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public Simplifier(GhostTree forest) {
+		this.remainder = new ArrayList<Node>();
+		this.remainderTrees = new ArrayList<CompactTree>();
+		this.simplify(((Node) forest.getRoot()).getSuccessors());
+	}
+
+	/**
+	 * Annule les paires d'arbres isomorphes, reconnus par leur empreinte canonique et leur taille, puis remplace les arbres
+	 * de forme connue par leur nombre de Grundy. Un arbre isomorphe à un arbre précédent non encore apparié forme une paire avec lui.
+	 * @param components Racines des arbres de la forêt.
+	 * @see model.tree.CompactTree#getCanonicalHash()
+	 * @see model.ai.Simplifier#closedForm(CompactTree)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private void simplify(List<Node> components) {
+		CompactTree[] trees = new CompactTree[components.size()];
+		boolean[] cancelled = new boolean[trees.length];
+		Map<Long, Integer> unmatched = new HashMap<Long, Integer>();
+		for (int i = 0; i < trees.length; i++) {
+			trees[i] = CompactTree.fromNode(components.get(i));
+			Long hash = trees[i].getCanonicalHash();
+			Integer other = unmatched.get(hash);
+			if (other != null && trees[other].getSize() == trees[i].getSize()) {
+				unmatched.remove(hash);
+				cancelled[other] = true;
+				cancelled[i] = true;
+				this.cancelledPairs++;
+				this.eliminatedNodes += 2 * trees[i].getSize();
+			} else {
+				unmatched.put(hash, i);
+			}
+		}
+		for (int i = 0; i < trees.length; i++) {
+			if (!cancelled[i]) {
+				int grundy = Simplifier.closedForm(trees[i]);
+				if (grundy != UNKNOWN) {
+					this.knownValue ^= grundy;
+					this.closedForms++;
+					this.eliminatedNodes += trees[i].getSize();
+				} else {
+					this.remainder.add(components.get(i));
+					this.remainderTrees.add(trees[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retourne le nombre de Grundy d'un arbre de forme connue : un chemin de n noeuds vaut n,
+	 * une étoile dont la racine a au moins un fils, tous des feuilles, vaut 2.
+	 * @param ct Arbre à reconnaître.
+	 * @return Le nombre de Grundy, ou <code>UNKNOWN</code> si l'arbre n'a pas de forme connue.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	static int closedForm(CompactTree ct) {
+		boolean path = true;
+		boolean star = ct.getSize() > 1;
+		for (int i = 0; i < ct.getSize() && (path || star); i++) {
+			int first = ct.getFirstChild(i);
+			if (first != CompactTree.NONE && ct.getNextSibling(first) != CompactTree.NONE) {
+				path = false;
+			}
+			if (i > 0 && first != CompactTree.NONE) {
+				star = false;
+			}
+		}
+		if (path) {
+			return ct.getSize();
+		}
+		return star ? STAR : UNKNOWN;
+	}
+
+	/**
+	 * Retourne le XOR des nombres de Grundy des arbres éliminés, les paires annulées valant 0.
+	 * @return La valeur de la partie simplifiée de la forêt.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getKnownValue() {
+		return this.knownValue;
+	}
+
+	/**
+	 * Retourne le nombre de noeuds éliminés par la simplification, qu'ils appartiennent à une paire annulée ou à un arbre de forme connue.
+	 * @return Le nombre de noeuds éliminés.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getEliminatedNodes() {
+		return this.eliminatedNodes;
+	}
+
+	/**
+	 * Retourne le nombre de paires d'arbres isomorphes annulées.
+	 * @return Le nombre de paires.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getCancelledPairs() {
+		return this.cancelledPairs;
+	}
+
+	/**
+	 * Retourne le nombre d'arbres remplacés par leur nombre de Grundy.
+	 * @return Le nombre d'arbres de forme connue.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getClosedForms() {
+		return this.closedForms;
+	}
+
+	/**
+	 * Retourne la forêt des arbres irréductibles, partageant les <code>Node</code> de la forêt d'origine.
+	 * @return Un nouveau <code>GhostTree</code> dont la racine "fantôme" a pour fils les arbres irréductibles.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public GhostTree getRemainder() {
+		return new GhostTree(new ArrayList<Node>(this.remainder));
+	}
+
+	/**
+	 * Calcule la valeur de la forêt en résolvant chaque arbre irréductible avec <code>Exaustive</code>.
+	 * @return Le nombre de Grundy de la forêt, 0 si elle est perdante pour le joueur qui doit jouer.
+	 * @see model.ai.Exaustive#getTable()
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public int solveWithExaustive() {
+		int grundy = this.knownValue;
+		for (CompactTree ct : this.remainderTrees) {
+			Exaustive ex = new Exaustive(ct);
+			ex.setCompact(true);
+			ex.compute();
+			grundy ^= ex.getTable().get(ct.getCanonicalHash(), ct.getSize());
+		}
+		return grundy;
+	}
+
+	/**
+	 * Calcule la valeur de la forêt en résolvant chaque arbre irréductible avec <code>LinearUlehla</code>.
+	 * @return Le nombre de Grundy de la forêt, 0 si elle est perdante pour le joueur qui doit jouer.
+	 * @see model.ai.LinearUlehla#getGrundy()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int solveWithUlehla() {
+		int grundy = this.knownValue;
+		for (CompactTree ct : this.remainderTrees) {
+			grundy ^= new LinearUlehla(ct).getGrundy()[0];
+		}
+		return grundy;
+	}
+}
@@ -0,0 +1,337 @@
+package model.ai;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+
+/**
+ * Classe <code>SolvedPositionStore</code> représentant un fichier de positions résolues, conservé d'une exécution à l'autre.
+ * Chaque entrée associe l'empreinte canonique et le nombre de noeuds d'un arbre à son nombre de Grundy.
+ * Le fichier est une table à adressage ouvert (sondage linéaire) de capacité fixe, projetée en mémoire via <code>FileChannel.map</code> :
+ * une recherche ne coûte donc au pire qu'un défaut de page.
+ * Plusieurs JVM d'une même machine peuvent partager le fichier : les lectures se font sans verrou,
+ * les écritures sous un <code>FileLock</code> exclusif. Une même JVM ne doit ouvrir le fichier qu'une seule fois.
+ * <p>
+ * Les écritures d'une autre JVM ne sont pas ordonnées vis-à-vis d'une lecture sans verrou : chaque case contient donc un mot de contrôle,
+ * dérivé de l'empreinte, du nombre de noeuds et de la valeur, écrit en dernier. Une case dont le mot de contrôle ne correspond pas
+ * à l'empreinte et à la valeur lues et au nombre de noeuds cherché est ignorée : c'est soit une position en cours d'écriture,
+ * soit un arbre de même empreinte mais d'une autre taille, qui occupe sa propre case. Les champs d'une case étant alignés sur leur taille, chacun est lu d'un seul bloc
+ * sur les plates-formes 64 bits : une lecture retourne soit la valeur écrite, soit <code>UNKNOWN</code> pour une position en cours d'écriture,
+ * mais jamais une valeur fausse.
+ * <p>
+ * Format : un en-tête de 16 octets (nombre magique, version, capacité, nombre d'entrées),
+ * suivi de <code>capacity</code> cases de 16 octets (empreinte sur 8 octets, valeur sur 4 octets, mot de contrôle sur 4 octets).
+ * Une empreinte nulle indique une case vide.
+ * 
+ * V 1.2 :
+ * <ul>
+ * 	<li>Le nombre de noeuds de l'arbre entre dans le mot de contrôle : une empreinte partagée par deux arbres de tailles différentes
+ * 	ne donne plus la valeur de l'un pour l'autre (format version 3).</li>
+ * </ul>
+ * 
+ * V 1.1 :
+ * <ul>
+ * 	<li>Les cases passent à 16 octets, alignées, et contiennent un mot de contrôle validant chaque lecture sans verrou (format version 2).</li>
+ * </ul>
+ * 
+ * @author Grégoire
+ * @date 3 fév. 2016
+ * @see model.ai.TranspositionTable
+ * @see model.ai.Exaustive#setStore(SolvedPositionStore)
+ * @version 1.2
+ */
+public class SolvedPositionStore implements Closeable {
+
+	/**
+	 * Valeur retournée par <code>get(long, int)</code> lorsque la position est absente du fichier.
+	 */
+	public static final int UNKNOWN = -1;
+
+	/**
+	 * Nombre magique identifiant le fichier ("HKDT").
+	 */
+	private static final int MAGIC = 0x484B4454;
+
+	/**
+	 * Version du format du fichier.
+	 */
+	private static final int VERSION = 3;
+
+	/**
+	 * Taille de l'en-tête en octets.
+	 */
+	private static final int HEADER = 16;
+
+	/**
+	 * Position du nombre d'entrées dans l'en-tête.
+	 */
+	private static final int COUNT = 12;
+
+	/**
+	 * Taille d'une case en octets, afin que l'empreinte de chaque case soit alignée sur 8 octets.
+	 */
+	private static final int SLOT = 16;
+
+	/**
+	 * Position de la valeur dans une case.
+	 */
+	private static final int VALUE = 8;
+
+	/**
+	 * Position du mot de contrôle dans une case.
+	 */
+	private static final int CHECK = 12;
+
+	/**
+	 * Capacité maximale, afin que le fichier puisse être projeté en un seul bloc.
+	 */
+	private static final int MAX_CAPACITY = 1 << 26;
+
+	/**
+	 * Clé utilisée à la place de la clé 0, réservée aux cases vides.
+	 */
+	private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Fichier ouvert.
+	 */
+	private final RandomAccessFile file;
+
+	/**
+	 * Canal du fichier, utilisé pour les verrous.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Projection en mémoire du fichier.
+	 */
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Nombre de cases du fichier, puissance de 2.
+	 */
+	private final int capacity;
+
+	/**
+	 * Constructeur privé, le fichier étant ouvert via <code>open(File, int)</code>.
+	 * @param file Fichier ouvert.
+	 * @param capacity Nombre de cases du fichier.
+	 * @param create Indique si l'en-tête doit être écrit.
+	 * @throws IOException Si la projection échoue.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private SolvedPositionStore(RandomAccessFile file, int capacity, boolean create) throws IOException {
+		this.file = file;
+		this.channel = file.getChannel();
+		this.capacity = capacity;
+		this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) SLOT * capacity);
+		if (create) {
+			this.buffer.putInt(0, MAGIC);
+			this.buffer.putInt(4, VERSION);
+			this.buffer.putInt(8, capacity);
+			this.buffer.putInt(COUNT, 0);
+		}
+	}
+
+	/**
+	 * Ouvre le fichier de positions résolues, en le créant s'il n'existe pas.
+	 * @param path Chemin du fichier.
+	 * @param capacity Nombre de positions que le fichier doit pouvoir contenir s'il est créé, ignoré sinon.
+	 * @return Le fichier ouvert.
+	 * @throws IOException Si le fichier ne peut être ouvert, ou s'il ne s'agit pas d'un fichier de positions.
+	 * @throws IllegalArgumentException Si la capacité demandée est trop grande.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static SolvedPositionStore open(File path, int capacity) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(path, "rw");
+		try {
+			FileLock lock = file.getChannel().lock();
+			try {
+				if (file.length() == 0) {
+					int slots = 16;
+					while (slots < capacity + capacity / 3 && slots < MAX_CAPACITY) {
+						slots <<= 1;
+					}
+					if (slots < capacity) {
+						throw new IllegalArgumentException("Capacité trop grande : " + capacity);
+					}
+					return new SolvedPositionStore(file, slots, true);
+				}
+				if (file.length() < HEADER || file.readInt() != MAGIC || file.readInt() != VERSION) {
+					throw new IOException("Fichier de positions invalide : " + path);
+				}
+				int slots = file.readInt();
+				if (Integer.bitCount(slots) != 1 || slots > MAX_CAPACITY || file.length() < HEADER + (long) SLOT * slots) {
+					throw new IOException("Fichier de positions tronqué : " + path);
+				}
+				return new SolvedPositionStore(file, slots, false);
+			} finally {
+				lock.release();
+			}
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		} catch (RuntimeException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Retourne le nombre de Grundy associé à un arbre, sans verrou.
+	 * @param key Empreinte canonique de l'arbre.
+	 * @param size Nombre de noeuds de l'arbre.
+	 * @return Le nombre de Grundy, ou <code>UNKNOWN</code> si l'arbre est absent ou en cours d'écriture par une autre JVM.
+	 * @see model.ai.SolvedPositionStore#check(long, int, int)
+	 * @since 1.0
+	 * @version 1.2
+	 */
+	public int get(long key, int size) {
+		key = SolvedPositionStore.normalize(key);
+		int mask = this.capacity - 1;
+		for (int i = SolvedPositionStore.index(key, mask), probes = 0; probes < this.capacity; i = (i + 1) & mask, probes++) {
+			int slot = HEADER + SLOT * i;
+			long k = this.buffer.getLong(slot);
+			if (k == key) {
+				int value = this.buffer.getInt(slot + VALUE);
+				if (this.buffer.getInt(slot + CHECK) == SolvedPositionStore.check(key, size, value)) {
+					return value;
+				}
+			}
+			if (k == 0) {
+				return UNKNOWN;
+			}
+		}
+		return UNKNOWN;
+	}
+
+	/**
+	 * Ajoute un arbre résolu au fichier, s'il n'y est pas déjà.
+	 * Lorsque le fichier est rempli aux trois quarts, les nouvelles positions sont ignorées.
+	 * Le mot de contrôle est écrit en dernier : tant qu'il ne l'est pas, les lectures retournent <code>UNKNOWN</code>.
+	 * @param key Empreinte canonique de l'arbre.
+	 * @param size Nombre de noeuds de l'arbre.
+	 * @param value Nombre de Grundy de l'arbre, positif ou nul.
+	 * @return True si la position a été ajoutée.
+	 * @throws IOException Si le verrou ne peut être obtenu.
+	 * @since 1.0
+	 * @version 1.2
+	 */
+	public synchronized boolean put(long key, int size, int value) throws IOException {
+		if (value < 0) {
+			throw new IllegalArgumentException("Valeur négative : " + value);
+		}
+		key = SolvedPositionStore.normalize(key);
+		FileLock lock = this.channel.lock();
+		try {
+			int count = this.buffer.getInt(COUNT);
+			if (4 * (count + 1) > 3 * this.capacity) {
+				return false;
+			}
+			int mask = this.capacity - 1;
+			int i = SolvedPositionStore.index(key, mask);
+			long k;
+			while ((k = this.buffer.getLong(HEADER + SLOT * i)) != 0) {
+				int slot = HEADER + SLOT * i;
+				if (k == key && this.buffer.getInt(slot + CHECK) == SolvedPositionStore.check(key, size, this.buffer.getInt(slot + VALUE))) {
+					return false;
+				}
+				i = (i + 1) & mask;
+			}
+			int slot = HEADER + SLOT * i;
+			this.buffer.putLong(slot, key);
+			this.buffer.putInt(slot + VALUE, value);
+			this.buffer.putInt(slot + CHECK, SolvedPositionStore.check(key, size, value));
+			this.buffer.putInt(COUNT, count + 1);
+			return true;
+		} finally {
+			lock.release();
+		}
+	}
+
+	/**
+	 * Retourne le nombre de positions présentes dans le fichier.
+	 * @return Le nombre de positions.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int size() {
+		return this.buffer.getInt(COUNT);
+	}
+
+	/**
+	 * Retourne le nombre de cases du fichier.
+	 * @return La capacité du fichier.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Force l'écriture sur le disque des positions ajoutées.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public void force() {
+		this.buffer.force();
+	}
+
+	/**
+	 * Écrit les positions ajoutées sur le disque puis ferme le fichier.
+	 * @throws IOException Si la fermeture échoue.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public void close() throws IOException {
+		this.force();
+		this.file.close();
+	}
+
+	/**
+	 * Remplace la clé 0, réservée aux cases vides.
+	 * @param key Empreinte d'un arbre.
+	 * @return L'empreinte à stocker dans le fichier.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static long normalize(long key) {
+		return key == 0 ? ZERO_KEY : key;
+	}
+
+	/**
+	 * Retourne le mot de contrôle d'une case.
+	 * Son bit de poids fort est toujours à 1, ce qui le distingue d'une case pas encore écrite, et pour une empreinte et un nombre de noeuds donnés
+	 * deux valeurs positives distinctes donnent deux mots distincts : une valeur pas encore écrite (0) n'est jamais acceptée à la place d'une autre.
+	 * Le nombre de noeuds est mélangé à l'empreinte : un arbre d'une autre taille ne retrouve le même mot que par hasard, avec une probabilité de 2^-31.
+	 * @param key Empreinte normalisée.
+	 * @param size Nombre de noeuds de l'arbre.
+	 * @param value Nombre de Grundy, positif ou nul.
+	 * @return Le mot de contrôle.
+	 * @since 1.1
+	 * @version 1.1
+	 */
+	private static int check(long key, int size, int value) {
+		long h = (key ^ (size * 0x9E3779B97F4A7C15L)) * 0xC2B2AE3D27D4EB4FL;
+		return ((int) (h ^ (h >>> 32)) | Integer.MIN_VALUE) ^ value;
+	}
+
+	/**
+	 * Retourne la case de départ du sondage pour une clé.
+	 * @param key Empreinte normalisée.
+	 * @param mask Capacité du fichier moins un.
+	 * @return L'indice de départ.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static int index(long key, int mask) {
+		return (int) (key ^ (key >>> 32)) & mask;
+	}
+}
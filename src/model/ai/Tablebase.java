@@ -0,0 +1,316 @@
+package model.ai;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import model.tree.CompactTree;
+import model.tree.RootedTreeEnumerator;
+
+/**
+ * Classe <code>Tablebase</code> représentant la table des nombres de Grundy de tous les arbres enracinés ayant au plus <code>maxSize</code> noeuds.
+ * Un coup supprimant toujours au moins un noeud, la table est construite par taille croissante :
+ * les arbres restant après un coup sur un arbre de n noeuds sont des sous-arbres propres, déjà présents dans la table.
+ * <p>
+ * Le fichier contient un en-tête (nombre magique, version, <code>maxSize</code>, nombre d'arbres),
+ * les empreintes canoniques triées par ordre croissant, le nombre de noeuds puis le nombre de Grundy de chaque arbre sur un octet.
+ * Une fois chargée, la recherche d'un arbre est une recherche dichotomique ; un arbre n'est reconnu que si son nombre de noeuds
+ * est aussi celui de l'entrée trouvée.
+ * 
+ * V 1.1 : 
+ * <ul>
+ * 	<li>Chaque arbre est identifié par son empreinte et son nombre de noeuds, rangé dans le fichier (version 2) :
+ * 	deux arbres de tailles différentes ayant la même empreinte ne partagent plus la même valeur.</li>
+ * </ul>
+ * @author Grégoire
+ * @date 5 fév. 2016
+ * @see model.tree.RootedTreeEnumerator
+ * @see model.ai.Exaustive#setTablebase(Tablebase)
+ * @see model.ai.Ulehla#Ulehla(model.tree.Tree, Tablebase)
+ * @version 1.1
+ */
+public class Tablebase {
+
+	/**
+	 * Valeur retournée par <code>get(long, int)</code> lorsque l'arbre est absent de la table.
+	 */
+	public static final int UNKNOWN = -1;
+
+	/**
+	 * Nombre magique identifiant le fichier ("HKTB").
+	 */
+	private static final int MAGIC = 0x484B5442;
+
+	/**
+	 * Version du format du fichier.
+	 */
+	private static final int VERSION = 2;
+
+	/**
+	 * Plus grand nombre de noeuds accepté, le nombre de Grundy d'un arbre étant au plus son nombre de noeuds.
+	 */
+	public static final int MAX_SIZE = 0xFF;
+
+	/**
+	 * Nombre de noeuds maximal des arbres de la table.
+	 */
+	private final int maxSize;
+
+	/**
+	 * Empreintes canoniques des arbres, triées par ordre croissant puis par nombre de noeuds.
+	 */
+	private final long[] keys;
+
+	/**
+	 * Nombre de noeuds de chaque arbre.
+	 */
+	private final byte[] sizes;
+
+	/**
+	 * Nombre de Grundy de chaque arbre.
+	 */
+	private final byte[] values;
+
+	/**
+	 * Constructeur privé, une <code>Tablebase</code> étant générée ou chargée.
+	 * @param maxSize Nombre de noeuds maximal des arbres.
+	 * @param keys Empreintes triées.
+	 * @param sizes Nombres de noeuds.
+	 * @param values Nombres de Grundy.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	private Tablebase(int maxSize, long[] keys, byte[] sizes, byte[] values) {
+		this.maxSize = maxSize;
+		this.keys = keys;
+		this.sizes = sizes;
+		this.values = values;
+	}
+
+	/**
+	 * Génère la table de tous les arbres ayant au plus <code>maxSize</code> noeuds.
+	 * Le nombre d'arbres croissant d'un facteur proche de 3 par noeud, une taille de 20 représente déjà une vingtaine de millions d'arbres.
+	 * Les empreintes des arbres de chaque taille sont triées puis fusionnées avec celles des arbres plus petits :
+	 * à empreinte égale, les entrées restent rangées par nombre de noeuds.
+	 * @param maxSize Nombre de noeuds maximal, entre 1 et <code>MAX_SIZE</code>.
+	 * @return La table générée.
+	 * @throws IllegalArgumentException Si <code>maxSize</code> est hors de ces bornes.
+	 * @see model.tree.RootedTreeEnumerator
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public static Tablebase generate(int maxSize) {
+		if (maxSize < 1 || maxSize > MAX_SIZE) {
+			throw new IllegalArgumentException("Taille hors de [1, " + MAX_SIZE + "] : " + maxSize);
+		}
+		TranspositionTable table = new TranspositionTable();
+		long[] keys = new long[0];
+		byte[] sizes = new byte[0];
+		for (int n = 1; n <= maxSize; n++) {
+			long[] level = new long[1024];
+			int count = 0;
+			RootedTreeEnumerator trees = new RootedTreeEnumerator(n);
+			while (trees.hasNext()) {
+				CompactTree t = CompactTree.fromLevelSequence(trees.next());
+				long[] hash = t.getSubtreeHashes();
+				int[] subtreeSizes = t.getSubtreeSizes();
+				int[] grundy = new int[n];
+				for (int i = 1; i < n; i++) {
+					grundy[i] = table.get(hash[i], subtreeSizes[i]);
+				}
+				int[] moves = Tablebase.moveValues(t, grundy);
+				boolean[] reached = new boolean[n + 1];
+				for (int value : moves) {
+					if (value <= n) {
+						reached[value] = true;
+					}
+				}
+				int g = 0;
+				while (reached[g]) {
+					g++;
+				}
+				table.put(hash[0], n, g);
+				if (count == level.length) {
+					level = Arrays.copyOf(level, count * 2);
+				}
+				level[count++] = hash[0];
+			}
+			Arrays.sort(level, 0, count);
+			long[] mergedKeys = new long[keys.length + count];
+			byte[] mergedSizes = new byte[keys.length + count];
+			int i = 0;
+			int j = 0;
+			for (int k = 0; k < mergedKeys.length; k++) {
+				if (j == count || (i < keys.length && keys[i] <= level[j])) {
+					mergedKeys[k] = keys[i];
+					mergedSizes[k] = sizes[i++];
+				} else {
+					mergedKeys[k] = level[j++];
+					mergedSizes[k] = (byte) n;
+				}
+			}
+			keys = mergedKeys;
+			sizes = mergedSizes;
+		}
+		byte[] values = new byte[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			values[i] = (byte) table.get(keys[i], sizes[i] & 0xFF);
+		}
+		return new Tablebase(maxSize, keys, sizes, values);
+	}
+
+	/**
+	 * Charge une table précédemment écrite par <code>write(File)</code>.
+	 * @param file Fichier de la table.
+	 * @return La table chargée.
+	 * @throws IOException Si le fichier ne peut être lu ou ne contient pas de table.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public static Tablebase load(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Fichier de table invalide : " + file);
+			}
+			int maxSize = in.readInt();
+			int count = in.readInt();
+			if (maxSize < 1 || maxSize > MAX_SIZE || count < 0) {
+				throw new IOException("En-tête de table invalide : " + file);
+			}
+			long[] keys = new long[count];
+			for (int i = 0; i < count; i++) {
+				keys[i] = in.readLong();
+			}
+			byte[] sizes = new byte[count];
+			in.readFully(sizes);
+			byte[] values = new byte[count];
+			in.readFully(values);
+			return new Tablebase(maxSize, keys, sizes, values);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Écrit la table dans un fichier.
+	 * @param file Fichier de destination, écrasé s'il existe.
+	 * @throws IOException Si l'écriture échoue.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public void write(File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(this.maxSize);
+			out.writeInt(this.keys.length);
+			for (long key : this.keys) {
+				out.writeLong(key);
+			}
+			out.write(this.sizes);
+			out.write(this.values);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Retourne le nombre de noeuds maximal des arbres de la table.
+	 * @return Le nombre de noeuds maximal.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Retourne le nombre d'arbres de la table.
+	 * @return Le nombre d'arbres.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int size() {
+		return this.keys.length;
+	}
+
+	/**
+	 * Retourne le nombre de Grundy d'un arbre.
+	 * Les entrées de même empreinte étant contiguës, on les parcourt à partir de celle trouvée par la recherche dichotomique.
+	 * @param key Empreinte canonique de l'arbre.
+	 * @param size Nombre de noeuds de l'arbre.
+	 * @return Le nombre de Grundy, ou <code>UNKNOWN</code> si l'arbre est absent de la table.
+	 * @see model.tree.Barcode#getCanonicalHash()
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public int get(long key, int size) {
+		if (size < 1 || size > this.maxSize) {
+			return UNKNOWN;
+		}
+		int i = Arrays.binarySearch(this.keys, key);
+		if (i < 0) {
+			return UNKNOWN;
+		}
+		while (i > 0 && this.keys[i - 1] == key) {
+			i--;
+		}
+		for (; i < this.keys.length && this.keys[i] == key; i++) {
+			if ((this.sizes[i] & 0xFF) == size) {
+				return this.values[i] & 0xFF;
+			}
+		}
+		return UNKNOWN;
+	}
+
+	/**
+	 * Retourne, pour chaque coup joué sur un arbre de la table, la valeur de la forêt obtenue.
+	 * Un coup est gagnant si et seulement si cette valeur est nulle.
+	 * @param t Arbre sur lequel on joue.
+	 * @return La valeur de la forêt obtenue en jouant chaque noeud, ou <code>null</code> si l'arbre est trop grand pour la table.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public int[] getMoveValues(CompactTree t) {
+		if (t.getSize() > this.maxSize) {
+			return null;
+		}
+		long[] hash = t.getSubtreeHashes();
+		int[] sizes = t.getSubtreeSizes();
+		int[] grundy = new int[t.getSize()];
+		for (int i = 1; i < t.getSize(); i++) {
+			grundy[i] = this.get(hash[i], sizes[i]);
+		}
+		return Tablebase.moveValues(t, grundy);
+	}
+
+	/**
+	 * Calcule la valeur de la forêt obtenue en jouant chaque noeud, connaissant le nombre de Grundy de chaque sous-arbre propre.
+	 * Si C(v) est le XOR des nombres de Grundy des fils de v, la valeur R(v) obtenue en jouant v
+	 * vérifie R(racine) = C(racine) et R(v) = R(parent(v)) ^ g(v) ^ C(v) : un seul parcours suffit.
+	 * @param t Arbre sur lequel on joue, dont les indices vérifient <code>parent[i] < i</code>.
+	 * @param grundy Nombre de Grundy du sous-arbre issu de chaque noeud, la case 0 n'étant pas lue.
+	 * @return La valeur de la forêt obtenue en jouant chaque noeud.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	static int[] moveValues(CompactTree t, int[] grundy) {
+		int n = t.getSize();
+		int[] values = new int[n];
+		for (int i = 1; i < n; i++) {
+			values[t.getParent(i)] ^= grundy[i];
+		}
+		for (int i = 1; i < n; i++) {
+			values[i] ^= values[t.getParent(i)] ^ grundy[i];
+		}
+		return values;
+	}
+}
@@ -0,0 +1,253 @@
+package model.ai;
+
+import java.util.Arrays;
+
+/**
+ * Classe <code>TranspositionTable</code> associant à l'empreinte canonique sur 64 bits d'une position
+ * une valeur tenant sur 16 bits (gagnant/perdant, nombre de Grundy, ...).
+ * La table est à adressage ouvert (sondage linéaire) sur des tableaux de types primitifs : 
+ * aucune allocation n'est faite par entrée, et la capacité est doublée lorsque la table est remplie à moitié.
+ * La clé 0 servant à marquer les cases vides, elle est remplacée par une autre constante.
+ * Une position est identifiée par son empreinte et par son nombre de noeuds : deux arbres de tailles différentes
+ * ayant la même empreinte occupent deux cases distinctes, au lieu de partager silencieusement la même valeur.
+ * 
+ * V 1.4 : 
+ * <ul>
+ * 	<li>Implémente <code>PositionTable</code>, qui porte désormais les constantes <code>UNKNOWN</code> et <code>MAX_VALUE</code>.</li>
+ * </ul>
+ * 
+ * V 1.3 : 
+ * <ul>
+ * 	<li>Chaque position est identifiée par son empreinte et son nombre de noeuds, conservé dans un tableau parallèle et comparé à chaque recherche.</li>
+ * </ul>
+ * 
+ * V 1.2 : 
+ * <ul>
+ * 	<li>Ajout de <code>putIfAbsent(long, int)</code>, permettant de réserver une position avant de la résoudre.</li>
+ * </ul>
+ * 
+ * V 1.1 : 
+ * <ul>
+ * 	<li>Les valeurs sont stockées sur 16 bits plutôt que sur un octet : le nombre de Grundy d'un arbre de quelques milliers de noeuds peut dépasser 255.</li>
+ * </ul>
+ * @author Grégoire
+ * @date 29 jan. 2016
+ * @see model.ai.PositionTable
+ * @see model.tree.Barcode#getCanonicalHash()
+ * @version 1.4
+ */
+public class TranspositionTable implements PositionTable {
+
+	/**
+	 * Capacité initiale par défaut de la table.
+	 */
+	private static final int DEFAULT_CAPACITY = 1 << 10;
+	
+	/**
+	 * Clé utilisée à la place de la clé 0, réservée aux cases vides.
+	 */
+	private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+	
+	/**
+	 * Empreintes des positions, 0 pour une case vide.
+	 */
+	private long[] keys;
+	
+	/**
+	 * Nombre de noeuds des positions, comparé en plus de l'empreinte.
+	 */
+	private int[] sizes;
+	
+	/**
+	 * Valeurs associées aux positions.
+	 */
+	private char[] values;
+	
+	/**
+	 * Nombre de positions présentes dans la table.
+	 */
+	private int size;
+	
+	/**
+	 * Constructeur de la classe <code>TranspositionTable</code> avec la capacité par défaut.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public TranspositionTable() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructeur de la classe <code>TranspositionTable</code> prévoyant au moins <code>expected</code> positions.
+	 * @param expected Nombre de positions attendues.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public TranspositionTable(int expected) {
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity < 2 * expected && capacity < (1 << 30)) {
+			capacity <<= 1;
+		}
+		this.keys = new long[capacity];
+		this.sizes = new int[capacity];
+		this.values = new char[capacity];
+		this.size = 0;
+	}
+	
+	/**
+	 * Retourne la valeur associée à une position.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @return La valeur associée, comprise entre 0 et <code>MAX_VALUE</code>, ou <code>UNKNOWN</code> si la position est absente.
+	 * @since 1.0
+	 * @version 1.2
+	 */
+	@Override
+	public int get(long key, int size) {
+		key = TranspositionTable.normalize(key);
+		int mask = this.keys.length - 1;
+		for (int i = TranspositionTable.index(key, mask); ; i = (i + 1) & mask) {
+			long k = this.keys[i];
+			if (k == key && this.sizes[i] == size) {
+				return this.values[i];
+			}
+			if (k == 0) {
+				return UNKNOWN;
+			}
+		}
+	}
+	
+	/**
+	 * Indique si une position est présente dans la table.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @return True si la position est présente.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public boolean contains(long key, int size) {
+		return this.get(key, size) != UNKNOWN;
+	}
+	
+	/**
+	 * Associe une valeur à une position, en remplaçant l'éventuelle valeur précédente.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @param value Valeur comprise entre 0 et <code>MAX_VALUE</code>.
+	 * @throws IllegalArgumentException Si la valeur ne tient pas sur 16 bits.
+	 * @since 1.0
+	 * @version 1.2
+	 */
+	@Override
+	public void put(long key, int size, int value) {
+		if (value < 0 || value > MAX_VALUE) {
+			throw new IllegalArgumentException("Valeur hors de [0, " + MAX_VALUE + "] : " + value);
+		}
+		key = TranspositionTable.normalize(key);
+		int mask = this.keys.length - 1;
+		int i = TranspositionTable.index(key, mask);
+		while (this.keys[i] != 0 && (this.keys[i] != key || this.sizes[i] != size)) {
+			i = (i + 1) & mask;
+		}
+		if (this.keys[i] == 0) {
+			this.keys[i] = key;
+			this.sizes[i] = size;
+			this.size++;
+		}
+		this.values[i] = (char) value;
+		if (2 * this.size > this.keys.length) {
+			this.grow();
+		}
+	}
+	
+	/**
+	 * Associe une valeur à une position si elle est absente de la table.
+	 * @param key Empreinte canonique de la position.
+	 * @param size Nombre de noeuds de la position.
+	 * @param value Valeur comprise entre 0 et <code>MAX_VALUE</code> à associer si la position est absente.
+	 * @return La valeur précédemment associée, ou <code>UNKNOWN</code> si la position était absente.
+	 * @since 1.2
+	 * @version 1.1
+	 */
+	@Override
+	public int putIfAbsent(long key, int size, int value) {
+		int previous = this.get(key, size);
+		if (previous == UNKNOWN) {
+			this.put(key, size, value);
+		}
+		return previous;
+	}
+	
+	/**
+	 * Retourne le nombre de positions présentes dans la table.
+	 * @return Le nombre de positions.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	@Override
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Vide la table sans réduire sa capacité.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(this.keys, 0L);
+		this.size = 0;
+	}
+	
+	/**
+	 * Double la capacité de la table et y replace toutes les positions.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	private void grow() {
+		long[] oldKeys = this.keys;
+		int[] oldSizes = this.sizes;
+		char[] oldValues = this.values;
+		this.keys = new long[oldKeys.length * 2];
+		this.sizes = new int[oldSizes.length * 2];
+		this.values = new char[oldValues.length * 2];
+		int mask = this.keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			long key = oldKeys[j];
+			if (key != 0) {
+				int i = TranspositionTable.index(key, mask);
+				while (this.keys[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				this.keys[i] = key;
+				this.sizes[i] = oldSizes[j];
+				this.values[i] = oldValues[j];
+			}
+		}
+	}
+	
+	/**
+	 * Remplace la clé 0, réservée aux cases vides.
+	 * @param key Empreinte d'une position.
+	 * @return L'empreinte à stocker dans la table.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static long normalize(long key) {
+		return key == 0 ? ZERO_KEY : key;
+	}
+	
+	/**
+	 * Retourne la case de départ du sondage pour une clé.
+	 * Les empreintes étant déjà mélangées, on se contente de replier les bits de poids fort.
+	 * @param key Empreinte normalisée.
+	 * @param mask Capacité de la table moins un.
+	 * @return L'indice de départ.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static int index(long key, int mask) {
+		return (int) (key ^ (key >>> 32)) & mask;
+	}
+}
@@ -1,12 +1,48 @@
 package model.tree;
 
-import java.util.List;
-import java.util.ArrayList;
 import java.util.Arrays;
 
 /**
  * Classe <code>Tree</code> permettant de générer un "code-barre" pour un arbre donnée. 		
  * 
+ * V 1.8 : 
+ * <ul>
+ * 	<li>Suppression de la méthode <code>getSubtree(int)</code>, qui n'est plus utilisée depuis que <code>Exaustive</code> joue sur des <code>PersistentTree</code>.</li>
+ * <ul> 
+ * 
+ * V 1.7 : 
+ * <ul>
+ * 	<li>Ajout des méthodes <code>getMove(int)</code> et <code>getMoves()</code> calculant le <code>Barcode</code> des forêts obtenues en jouant
+ * 	directement sur les bits du <code>code</code>, sans construire de <code>Node</code> ni de <code>CompactTree</code>.</li>
+ * <ul> 
+ * 
+ * V 1.6 : 
+ * <ul>
+ * 	<li>Ajout de la méthode <code>getSubtree(int)</code> extrayant le <code>Barcode</code> d'un sous-arbre.</li>
+ * <ul> 
+ * 
+ * V 1.5 : 
+ * <ul>
+ * 	<li>Ajout de la méthode <code>getCanonicalHash()</code> retournant une empreinte canonique sur 64 bits.</li>
+ * <ul> 
+ * 
+ * V 1.4 : 
+ * <ul>
+ * 	<li>Le <code>code</code> est désormais stocké bit à bit dans un <code>long[]</code> plutôt que dans une <code>String</code>.</li>
+ * 	<li>Comparaison mot par mot, ajout des méthodes <code>equals(Object)</code> et <code>hashCode()</code>.</li>
+ * 	<li><code>getCode()</code> n'est plus utilisé que pour l'affichage.</li>
+ * <ul> 
+ * 
+ * V 1.3 : 
+ * <ul>
+ * 	<li>Suppression de la classe interne <code>LinkedNode</code>, <code>generateTree()</code> utilise désormais le parent des <code>Node</code>.</li>
+ * <ul> 
+ * 
+ * V 1.2 : 
+ * <ul>
+ * 	<li>Ajout de la méthode <code>generateCompactTree()</code> générant directement un <code>CompactTree</code>.</li>
+ * <ul> 
+ * 
  * V 1.1 : 
  * <ul>
  * 	<li>Ajout des méthodes <code>setCode()</code> et <code>generateTree()</code></li>
@@ -14,22 +50,55 @@ import java.util.Arrays;
  * <ul> 
  * @author Grégoire
  * @date 15 nov. 2015
- * @version 1.1
+ * @version 1.8
  */
 public class Barcode implements Comparable<Barcode> {
 	
 	/**
-	 * Code d'identification du <code>Barecode</code> composé de 0 et de 1.
+	 * Nombre de bits par mot du tableau <code>bits</code>.
+	 */
+	private static final int WORD_SIZE = 64;
+	
+	/**
+	 * Code d'identification du <code>Barecode</code> composé de 0 et de 1, rangé bit à bit.
+	 * Le bit i se trouve dans le mot i / 64, en partant du bit de poids fort, ce qui permet de comparer
+	 * deux <code>Barcode</code> mot par mot. Les bits situés après <code>length</code> valent toujours 0.
+	 */
+	private long[] bits;
+	
+	/**
+	 * Nombre de bits du <code>code</code>.
+	 */
+	private int length;
+	
+	/**
+	 * <code>hashCode</code> du <code>Barcode</code>, calculé à la demande.
 	 */
-	private String code;
+	private int hash;
+	
+	/**
+	 * Indique si <code>hash</code> a déjà été calculé.
+	 */
+	private boolean hashed;
+	
+	/**
+	 * Empreinte canonique sur 64 bits du <code>Barcode</code>, calculée à la demande.
+	 */
+	private long canonicalHash;
+	
+	/**
+	 * Indique si <code>canonicalHash</code> a déjà été calculé.
+	 */
+	private boolean canonicalHashed;
 	
 	/**
 	 * Constructeur de la classe <code>Barcode</code> initialisant le <code>code</code> a "10".
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public Barcode() {
-		this.code = "10";	
+		this.bits = new long[] { 1L << (WORD_SIZE - 1) };
+		this.length = 2;
 	}
 	
 	/**
@@ -37,154 +106,466 @@ public class Barcode implements Comparable<Barcode> {
 	 * @param codes <code>Code</code> que l'on à déjà généré et que l'on passe afin de construire la suite du "code-barre".
 	 * @see model.tree.Barcode#sort(Barcode[])
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public Barcode(Barcode[] codes) {
-		this.code = "1" + this.sort(codes) + "0";
+		this.sort(codes);
+	}
+	
+	/**
+	 * Constructeur interne prenant directement les bits du <code>code</code>.
+	 * @param bits Bits du <code>code</code>, ceux situés après <code>length</code> devant valoir 0.
+	 * @param length Nombre de bits du <code>code</code>.
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	Barcode(long[] bits, int length) {
+		this.bits = bits;
+		this.length = length;
 	}
 	
 	/**
-	 * Retourne le <code>code</code> courant.
+	 * Retourne le <code>code</code> courant sous forme textuelle.
+	 * Cette représentation n'est destinée qu'à l'affichage.
 	 * @return Le code actuel composé de 0 et de 1.
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public String getCode() {
-		return this.code;
+		StringBuilder str = new StringBuilder(this.length);
+		for (int i = 0; i < this.length; i++) {
+			str.append(this.getBit(i) ? '1' : '0');
+		}
+		return str.toString();
 	}
 	
 	/**
 	 * Modifie le <code>code</code> courant.
-	 * @param c Nouveau <code>code</code>.
+	 * @param c Nouveau <code>code</code>, composé de 0 et de 1.
 	 * @since 1.1
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public void setCode(String c) {
-		this.code = c;
+		this.length = c.length();
+		this.bits = new long[Barcode.words(this.length)];
+		for (int i = 0; i < this.length; i++) {
+			if (c.charAt(i) == '1') {
+				this.bits[i / WORD_SIZE] |= Barcode.mask(i);
+			}
+		}
+		this.hashed = false;
+		this.canonicalHashed = false;
 	}
 	
 	/**
 	 * Retourne la taille du <code>Barcode</code>
 	 * @return La taille du tableau.
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public int getSize() {
-		return code.length() / 2;
+		return this.length / 2;
+	}
+	
+	/**
+	 * Retourne le nombre de bits du <code>code</code>, soit deux fois le nombre de noeuds.
+	 * @return Le nombre de bits.
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	public int getLength() {
+		return this.length;
+	}
+	
+	/**
+	 * Retourne le bit d'indice <code>i</code> du <code>code</code>.
+	 * @param i Indice du bit.
+	 * @return true pour un 1, false pour un 0.
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	public boolean getBit(int i) {
+		return (this.bits[i / WORD_SIZE] & Barcode.mask(i)) != 0;
 	}
 	
 	/**
+	 * Compare les "code-barre" par longueur, puis mot par mot.
+	 * L'ordre obtenu est le même que celui des <code>code</code> textuels.
 	 * @param bc <code>Barcode</code> que l'on compare au <code>Barcode</code> courant.
 	 * @return -1 / 0 / 1 suivant si les "code-barre" sont identique, ou supérieur (inférieur) l'un à l'autre.
-	 * @see model.tree.Barcode#getCode()
 	 * @see model.tree.Barcode#compareTo(Barcode)
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public int compareTo(Barcode bc) {
-		if (bc.getCode().length() > this.code.length()) {
+		if (bc.length > this.length) {
 			return -1;
 		}
-		if (bc.getCode().length() < this.code.length()) {
+		if (bc.length < this.length) {
 			return 1;
 		}
-		return this.code.compareTo(bc.getCode());
+		for (int i = 0; i < this.bits.length; i++) {
+			if (this.bits[i] != bc.bits[i]) {
+				return Long.compareUnsigned(this.bits[i], bc.bits[i]);
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 * Deux <code>Barcode</code> sont égaux s'ils ont le même <code>code</code>, c'est à dire s'ils représentent des arbres isomorphes.
+	 * @param o Objet que l'on compare au <code>Barcode</code> courant.
+	 * @return true si les <code>code</code> sont identiques.
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof Barcode)) {
+			return false;
+		}
+		Barcode bc = (Barcode) o;
+		return this.length == bc.length && this.hashCode() == bc.hashCode() && Arrays.equals(this.bits, bc.bits);
+	}
+	
+	/**
+	 * Retourne le <code>hashCode</code> du <code>Barcode</code>, calculé une seule fois.
+	 * @return Le <code>hashCode</code>.
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	public int hashCode() {
+		if (!this.hashed) {
+			this.hash = 31 * Arrays.hashCode(this.bits) + this.length;
+			this.hashed = true;
+		}
+		return this.hash;
+	}
+	
+	/**
+	 * Retourne l'empreinte canonique sur 64 bits de l'arbre représenté par ce <code>Barcode</code>, calculée une seule fois.
+	 * Cette empreinte est la même que celle calculée par <code>TreeHash</code> sur n'importe quel arbre isomorphe.
+	 * @return L'empreinte canonique.
+	 * @see model.tree.TreeHash#node(long)
+	 * @see model.tree.TreeHash#child(long)
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public long getCanonicalHash() {
+		if (!this.canonicalHashed) {
+			long[] sums = new long[this.length / 2 + 1];
+			int top = 0;
+			long result = 0;
+			for (int i = 0; i < this.length; i++) {
+				if (this.getBit(i)) {
+					sums[top++] = 0;
+				} else {
+					result = TreeHash.node(sums[--top]);
+					if (top > 0) {
+						sums[top - 1] += TreeHash.child(result);
+					}
+				}
+			}
+			this.canonicalHash = result;
+			this.canonicalHashed = true;
+		}
+		return this.canonicalHash;
+	}
+	
+	/**
+	 * Retourne le <code>Barcode</code> de la forêt obtenue en jouant sur le noeud commençant à l'indice <code>position</code> du <code>code</code>,
+	 * la forêt étant rattachée à une racine "fantôme" comme pour <code>CompactTree#delete(int)</code>.
+	 * @param position Indice du bit à 1 ouvrant le noeud joué, c'est-à-dire son <code>label</code> dans <code>generateCompactTree()</code>.
+	 * @return Le <code>Barcode</code> de la forêt, égal à celui de <code>generateCompactTree().delete(node)</code>.
+	 * @throws IllegalArgumentException Si <code>position</code> n'est pas l'ouverture d'un noeud.
+	 * @see model.tree.Barcode#getMoves()
+	 * @since 1.7
+	 * @version 1.7
+	 */
+	public Barcode getMove(int position) {
+		if (position < 0 || position >= this.length || !this.getBit(position)) {
+			throw new IllegalArgumentException("Aucun noeud ne commence à l'indice " + position);
+		}
+		int[] open = new int[this.getSize()];
+		int[] size = new int[open.length];
+		int[] parent = new int[open.length];
+		this.parse(open, size, parent);
+		int[] trees = new int[open.length];
+		return this.move(Arrays.binarySearch(open, position), open, size, parent, trees, new int[open.length]);
+	}
+	
+	/**
+	 * Retourne le <code>Barcode</code> de chacune des forêts obtenues en jouant, en ne travaillant que sur des tableaux d'entiers.
+	 * Les sous-arbres d'un noeud étant des facteurs déjà canoniques du <code>code</code>, une forêt est formée des facteurs des fils du noeud joué
+	 * et de ceux des fils de ses ancêtres hors du chemin ; chacun de ces groupes étant déjà trié, le tri fusion se réduit à leur interclassement,
+	 * puis les facteurs sont recopiés mot par mot.
+	 * @return Les <code>Barcode</code> des forêts, le i-ème correspondant au i-ème noeud dans l'ordre du <code>code</code>, c'est-à-dire au noeud i
+	 * de <code>generateCompactTree()</code>.
+	 * @see model.tree.Barcode#getMove(int)
+	 * @see model.tree.IntSorter#sort(int[], int, int, int[], IntSorter.IntComparator)
+	 * @since 1.7
+	 * @version 1.7
+	 */
+	public Barcode[] getMoves() {
+		int[] open = new int[this.getSize()];
+		int[] size = new int[open.length];
+		int[] parent = new int[open.length];
+		this.parse(open, size, parent);
+		int[] trees = new int[open.length];
+		int[] buffer = new int[open.length];
+		Barcode[] moves = new Barcode[open.length];
+		for (int node = 0; node < open.length; node++) {
+			moves[node] = this.move(node, open, size, parent, trees, buffer);
+		}
+		return moves;
+	}
+	
+	/**
+	 * Parcourt le <code>code</code> une fois et numérote les noeuds dans l'ordre de leur ouverture.
+	 * @param open Reçoit, pour chaque noeud, l'indice du bit qui l'ouvre.
+	 * @param size Reçoit, pour chaque noeud, le nombre de noeuds de son sous-arbre.
+	 * @param parent Reçoit, pour chaque noeud, son parent, -1 pour la racine.
+	 * @since 1.7
+	 * @version 1.7
+	 */
+	private void parse(int[] open, int[] size, int[] parent) {
+		int[] stack = new int[open.length];
+		int top = 0;
+		int count = 0;
+		for (int i = 0; i < this.length; i++) {
+			if (this.getBit(i)) {
+				parent[count] = top > 0 ? stack[top - 1] : -1;
+				open[count] = i;
+				stack[top++] = count++;
+			} else {
+				int node = stack[--top];
+				size[node] = (i + 1 - open[node]) / 2;
+			}
+		}
+	}
+	
+	/**
+	 * Construit le <code>Barcode</code> de la forêt obtenue en jouant sur un noeud.
+	 * Dans l'ordre du <code>code</code>, le premier fils du noeud p est p + 1 et le frère suivant du noeud c est c + size[c].
+	 * @param node Numéro du noeud joué.
+	 * @param open Indice du bit ouvrant chaque noeud.
+	 * @param size Nombre de noeuds du sous-arbre de chaque noeud.
+	 * @param parent Parent de chaque noeud.
+	 * @param trees Tableau de travail recevant les racines de la forêt.
+	 * @param buffer Tableau de travail du tri.
+	 * @return Le <code>Barcode</code> de la forêt, rattachée à une racine "fantôme".
+	 * @since 1.7
+	 * @version 1.7
+	 */
+	private Barcode move(int node, final int[] open, final int[] size, int[] parent, int[] trees, int[] buffer) {
+		int count = 0;
+		int skip = -1;
+		for (int p = node; p != -1; skip = p, p = parent[p]) {
+			for (int c = p + 1; c < p + size[p]; c += size[c]) {
+				if (c != skip) {
+					trees[count++] = c;
+				}
+			}
+		}
+		final long[] bits = this.bits;
+		IntSorter.sort(trees, 0, count, buffer, new IntSorter.IntComparator() {
+			public int compare(int a, int b) {
+				if (size[a] != size[b]) {
+					return size[a] < size[b] ? -1 : 1;
+				}
+				return Barcode.compareBits(bits, open[a], open[b], 2 * size[a]);
+			}
+		});
+		int length = 2;
+		for (int i = 0; i < count; i++) {
+			length += 2 * size[trees[i]];
+		}
+		long[] result = new long[Barcode.words(length)];
+		result[0] = Barcode.mask(0);
+		int position = 1;
+		for (int i = 0; i < count; i++) {
+			int tree = trees[i];
+			Barcode.copyBits(bits, open[tree], 2 * size[tree], result, position);
+			position += 2 * size[tree];
+		}
+		return new Barcode(result, length);
 	}
 	
 	/**
-	 * Tri les <code>Barcode</code> afin de retourner un résultat composé de chque <code>Barcode</code> trié comme il faut.
-	 * @param codes
-	 * @return Le <code>Barcode</code> trié correctement.
+	 * Affichage du <code>code</code>, utile pour le débogage.
+	 * @return Le <code>code</code> sous forme textuelle.
 	 * @see model.tree.Barcode#getCode()
-	 * @since 1.0
+	 * @since 1.4
 	 * @version 1.0
 	 */
-	private String sort(Barcode[] codes) {
+	public String toString() {
+		return this.getCode();
+	}
+	
+	/**
+	 * Tri les <code>Barcode</code> puis construit le <code>code</code> "1", suivi de chaque <code>Barcode</code> trié, suivi de "0".
+	 * Les <code>Barcode</code> sont recopiés mot par mot.
+	 * @param codes <code>Barcode</code> des sous-arbres.
+	 * @see model.tree.Barcode#copyBits(long[], int, int, long[], int)
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	private void sort(Barcode[] codes) {
 		Arrays.sort(codes);
-		String result = "";
+		int total = 2;
+		for (Barcode bc : codes) {
+			total += bc.length;
+		}
+		this.length = total;
+		this.bits = new long[Barcode.words(total)];
+		this.bits[0] = Barcode.mask(0);
+		int position = 1;
 		for (Barcode bc : codes) {
-			result += bc.getCode();
+			Barcode.copyBits(bc.bits, 0, bc.length, this.bits, position);
+			position += bc.length;
 		}
-		return result;
+	}
+	
+	/**
+	 * Retourne le nombre de mots nécessaires pour stocker <code>length</code> bits.
+	 * @param length Nombre de bits.
+	 * @return Le nombre de mots.
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	static int words(int length) {
+		return (length + WORD_SIZE - 1) / WORD_SIZE;
+	}
+	
+	/**
+	 * Retourne le masque du bit d'indice <code>i</code> dans son mot.
+	 * @param i Indice du bit.
+	 * @return Le masque correspondant.
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	static long mask(int i) {
+		return 1L << (WORD_SIZE - 1 - (i % WORD_SIZE));
+	}
+	
+	/**
+	 * Recopie <code>length</code> bits de <code>src</code> à partir de <code>from</code> dans <code>dst</code> à partir de <code>position</code>.
+	 * Les bits de destination doivent valoir 0, la copie s'effectue 64 bits par 64 bits.
+	 * @param src Bits source.
+	 * @param from Indice du premier bit à copier.
+	 * @param length Nombre de bits à copier.
+	 * @param dst Bits destination.
+	 * @param position Indice du premier bit écrit.
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	static void copyBits(long[] src, int from, int length, long[] dst, int position) {
+		for (int done = 0; done < length; done += WORD_SIZE) {
+			int count = Math.min(WORD_SIZE, length - done);
+			long chunk = Barcode.readWord(src, from + done) & (-1L << (WORD_SIZE - count));
+			int w = (position + done) / WORD_SIZE;
+			int shift = (position + done) % WORD_SIZE;
+			dst[w] |= chunk >>> shift;
+			if (shift != 0 && shift + count > WORD_SIZE) {
+				dst[w + 1] |= chunk << (WORD_SIZE - shift);
+			}
+		}
+	}
+	
+	/**
+	 * Compare deux facteurs de même longueur d'un même tableau de bits, 64 bits par 64 bits, dans l'ordre de <code>compareTo(Barcode)</code>.
+	 * @param bits Bits comparés.
+	 * @param a Indice du premier bit du premier facteur.
+	 * @param b Indice du premier bit du second facteur.
+	 * @param length Nombre de bits des facteurs.
+	 * @return Un entier négatif, nul ou positif suivant si le premier facteur est inférieur, égal ou supérieur au second.
+	 * @since 1.7
+	 * @version 1.7
+	 */
+	static int compareBits(long[] bits, int a, int b, int length) {
+		for (int done = 0; done < length; done += WORD_SIZE) {
+			long mask = -1L << (WORD_SIZE - Math.min(WORD_SIZE, length - done));
+			long wa = Barcode.readWord(bits, a + done) & mask;
+			long wb = Barcode.readWord(bits, b + done) & mask;
+			if (wa != wb) {
+				return Long.compareUnsigned(wa, wb);
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 * Lit 64 bits consécutifs à partir de l'indice <code>position</code>, les bits situés hors du tableau valant 0.
+	 * @param src Bits source.
+	 * @param position Indice du premier bit lu.
+	 * @return Les 64 bits lus, le premier étant le bit de poids fort.
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	static long readWord(long[] src, int position) {
+		int w = position / WORD_SIZE;
+		int shift = position % WORD_SIZE;
+		long word = src[w] << shift;
+		if (shift != 0 && w + 1 < src.length) {
+			word |= src[w + 1] >>> (WORD_SIZE - shift);
+		}
+		return word;
 	}
 	
 	/**
 	 * Méthode permettant de générer un <code>Tree</code> à partir de son <code>Barcode</code>. 
 	 * @return L'arbre issue du <code>Barcode</code>.
-	 * @see model.tree.Node#getSuccessors()
-	 * @see model.tree.Node#setSuccessors(List)
+	 * @see model.tree.Node#addSuccessor(Node)
+	 * @see model.tree.Node#getParent()
 	 * @see model.tree.Node#getDepth()
 	 * @see model.tree.Tree#Tree(Node)
-	 * @see model.tree.Barcode.LinkedNode#getPred()
 	 * @since 1.1
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public Tree generateTree() {		
-		LinkedNode n = new LinkedNode("0", 0, null);
-		n.setPred(n);
+		Node root = new Node("0", 0);
+		Node n = root;
 		
-		for(int label = 1; label < code.length(); label++) {
-			if(code.charAt(label) == '1') {
-				LinkedNode d = new LinkedNode("" + label, n.getDepth() + 1, n);
-				List<Node> l = new ArrayList<Node>();
-				l.addAll(n.getSuccessors());
-				l.add(d);
-				n.setSuccessors(l);
+		for(int label = 1; label < this.length - 1; label++) {
+			if(this.getBit(label)) {
+				Node d = new Node("" + label, n.getDepth() + 1);
+				d.setParent(n);
+				n.addSuccessor(d);
 				n = d;
 			} else {
-				n = (LinkedNode) n.getPred();
+				n = n.getParent();
 			}
 		}
-		return new Tree(n);
+		return new Tree(root);
 	}
 	
 	/**
-	 * Classe interne permettant de recréer un arbre a partir de son <code>Barcode</code>
-	 * La classe <code>LinkedNode</code> extends <code>Node</cdoe> en y ajoutant un prédécesseur.
-	 * 
-	 * @author Grégoire
-	 * @date 18 déc. 2015
+	 * Méthode permettant de générer un <code>CompactTree</code> à partir de son <code>Barcode</code>,
+	 * sans passer par un graphe de <code>Node</code>.
+	 * Les <code>labels</code> sont, comme pour <code>generateTree()</code>, la position du noeud dans le <code>code</code>.
+	 * @return L'arbre issue du <code>Barcode</code>.
+	 * @see model.tree.CompactTree#CompactTree(int[], int[])
+	 * @since 1.2
 	 * @version 1.0
 	 */
-	private class LinkedNode extends Node {
-		
-		/**
-		 * Prédecesseur du <code>Node</code> courant. 
-		 */
-		private Node pred;
-		
-		/**
-		 * Constructeur prenant le <code>label</code>, la profondeur <code>depth</code> ainsi que le prédecesseur <code>pred</code>.
-		 * 
-		 * @param label Identifiant du <code>Node</code>.
-		 * @param depth Profondeur du <code>Node</code>.
-		 * @param pred Prédecesseur du <code>Node</code>.
-		 * @see model.tree.Node#Node(String, int)
-		 */
-		public LinkedNode(String label, int depth, Node pred) {
-			super(label, depth);
-			setPred(pred);	
-		}
-		
-		/**
-		 * Modificateur du predecesseur du <code>Node</code> courant.
-		 * @param n Nouveau prédécesseur.
-		 * since 1.0
-		 * @version 1.0
-		 */
-		public void setPred(Node n) {
-			pred = n;
-		}
-		
-		/**
-		 * Retourne le prédécesseur du <code>Node</code> courant.
-		 * @return Le prédécesseur du <code>Node</code> courant.
-		 * @since 1.0
-		 * @version 1.0
-		 */
-		public Node getPred() {
-			return pred;
+	public CompactTree generateCompactTree() {
+		int size = this.getSize();
+		int[] parent = new int[size];
+		int[] label = new int[size];
+		parent[0] = CompactTree.NONE;
+		int current = 0;
+		int count = 1;
+		for (int i = 1; i < this.length - 1; i++) {
+			if (this.getBit(i)) {
+				parent[count] = current;
+				label[count] = i;
+				current = count++;
+			} else {
+				current = parent[current];
+			}
 		}
+		return new CompactTree(parent, label);
 	}
 }
-
@@ -0,0 +1,827 @@
+package model.tree;
+
+import java.util.Arrays;
+
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+
+/**
+ * Classe <code>CompactTree</code> représentant un arbre sous forme de tableaux d'entiers.
+ * Plutôt que de manipuler un graphe de <code>Node</code>, chaque noeud est identifié par son indice
+ * et l'on stocke pour chacun son parent, son premier fils, son frère suivant ainsi que son <code>label</code>.
+ * La racine a toujours l'indice 0 et les indices respectent la relation <code>parent[i] < i</code>,
+ * ce qui permet de parcourir l'arbre sans récursivité.
+ * Les objets manipulés via l'interface <code>TreeModel</code> sont les indices des noeuds (<code>Integer</code>).
+ * 
+ * V 1.6 : 
+ * <ul>
+ * 	<li>Ajout du calcul du nombre de noeuds de chaque sous-arbre et de chaque forêt obtenue après un coup,
+ * 	qui accompagnent leurs empreintes dans les tables de positions.</li>
+ * </ul>
+ * 
+ * V 1.5 : 
+ * <ul>
+ * 	<li>Suppression de la méthode <code>getRemainingRoots(int)</code> : les arbres restant après un coup sont donnés par <code>PersistentTree#play(int...)</code>.</li>
+ * </ul>
+ * 
+ * V 1.4 : 
+ * <ul>
+ * 	<li>Ajout du calcul des orbites des noeuds sous l'action des automorphismes de l'arbre : deux noeuds d'une même orbite donnent la même forêt.</li>
+ * </ul>
+ * 
+ * V 1.3 : 
+ * <ul>
+ * 	<li>Ajout de la construction d'un <code>CompactTree</code> à partir d'une suite de niveaux.</li>
+ * </ul>
+ * 
+ * V 1.2 : 
+ * <ul>
+ * 	<li>Ajout du calcul de l'empreinte canonique de l'arbre et de celles de toutes les forêts obtenues après un coup, en O(n).</li>
+ * 	<li>Ajout du calcul de l'empreinte de chaque sous-arbre et des racines des arbres restant après un coup.</li>
+ * </ul>
+ * 
+ * V 1.1 : 
+ * <ul>
+ * 	<li>Calcul du <code>Barcode</code> par réétiquetage entier niveau par niveau (Aho, Hopcroft, Ullman).</li>
+ * </ul>
+ * @author Grégoire
+ * @date 25 jan. 2016
+ * @see model.tree.Tree
+ * @version 1.6
+ */
+public class CompactTree implements TreeModel {
+
+	/**
+	 * Valeur indiquant l'absence de noeud (parent de la racine, fin de liste de frères...).
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * Nombre de noeuds de notre <code>CompactTree</code>.
+	 */
+	private int size;
+
+	/**
+	 * Parent de chaque noeud, <code>NONE</code> pour la racine.
+	 */
+	private int[] parent;
+
+	/**
+	 * Premier fils de chaque noeud, <code>NONE</code> pour une feuille.
+	 */
+	private int[] firstChild;
+
+	/**
+	 * Frère suivant de chaque noeud, <code>NONE</code> pour le dernier fils.
+	 */
+	private int[] nextSibling;
+
+	/**
+	 * <code>Label</code> de chaque noeud.
+	 */
+	private int[] label;
+
+	/**
+	 * Constructeur de la classe <code>CompactTree</code> prenant en paramètre le tableau des parents ainsi que celui des <code>labels</code>.
+	 * Les fils d'un même noeud sont rangés par ordre croissant d'indice.
+	 * @param parent Tableau des parents, <code>parent[0]</code> vaut <code>NONE</code> et <code>parent[i] < i</code> sinon.
+	 * @param label Tableau des <code>labels</code>.
+	 * @throws IllegalArgumentException Si les tableaux ne décrivent pas un arbre enraciné en 0.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public CompactTree(int[] parent, int[] label) {
+		if (parent.length == 0 || parent.length != label.length || parent[0] != NONE) {
+			throw new IllegalArgumentException("Tableaux incohérents pour un CompactTree.");
+		}
+		this.size = parent.length;
+		this.parent = parent;
+		this.label = label;
+		this.firstChild = new int[this.size];
+		this.nextSibling = new int[this.size];
+		Arrays.fill(this.firstChild, NONE);
+		Arrays.fill(this.nextSibling, NONE);
+		for (int i = this.size - 1; i > 0; i--) {
+			int p = parent[i];
+			if (p < 0 || p >= i) {
+				throw new IllegalArgumentException("Le parent du noeud " + i + " doit avoir un indice inférieur.");
+			}
+			this.nextSibling[i] = this.firstChild[p];
+			this.firstChild[p] = i;
+		}
+	}
+
+	/**
+	 * Méthode <code>static</code> permettant de convertir un graphe de <code>Node</code> en <code>CompactTree</code>.
+	 * Les indices sont attribués dans l'ordre préfixe du parcours en profondeur,
+	 * l'indice i correspond donc au i-ème élément de <code>Tree#prefixeDepthCourse(Node)</code>.
+	 * Les <code>labels</code> non numériques sont remplacés par l'indice du noeud.
+	 * @param root Racine du graphe de <code>Node</code>.
+	 * @return Le <code>CompactTree</code> équivalent.
+	 * @see model.tree.Node#getSuccessors()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static CompactTree fromNode(Node root) {
+		int[] parent = new int[16];
+		int[] label = new int[16];
+		int count = 0;
+		Node[] stack = new Node[16];
+		int[] stackParent = new int[16];
+		int top = 0;
+		stack[top] = root;
+		stackParent[top++] = NONE;
+		while (top > 0) {
+			Node n = stack[--top];
+			stack[top] = null;
+			if (count == parent.length) {
+				parent = Arrays.copyOf(parent, count * 2);
+				label = Arrays.copyOf(label, count * 2);
+			}
+			parent[count] = stackParent[top];
+			label[count] = CompactTree.parseLabel(n.getLabel(), count);
+			int successors = n.getSuccessorCount();
+			if (top + successors > stack.length) {
+				int capacity = Math.max(stack.length * 2, top + successors);
+				stack = Arrays.copyOf(stack, capacity);
+				stackParent = Arrays.copyOf(stackParent, capacity);
+			}
+			for (int i = successors - 1; i >= 0; i--) {
+				stack[top] = n.getSuccessor(i);
+				stackParent[top++] = count;
+			}
+			count++;
+		}
+		return new CompactTree(Arrays.copyOf(parent, count), Arrays.copyOf(label, count));
+	}
+
+	/**
+	 * Méthode <code>static</code> permettant de convertir un <code>Tree</code> en <code>CompactTree</code>.
+	 * @param tree <code>Tree</code> à convertir.
+	 * @return Le <code>CompactTree</code> équivalent.
+	 * @see model.tree.CompactTree#fromNode(Node)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static CompactTree fromTree(Tree tree) {
+		return CompactTree.fromNode((Node) tree.getRoot());
+	}
+
+	/**
+	 * Méthode <code>static</code> permettant de construire un <code>CompactTree</code> à partir d'une suite de niveaux,
+	 * c'est-à-dire de la profondeur de chaque noeud dans l'ordre préfixe. Le <code>label</code> de chaque noeud est son indice.
+	 * @param levels Suite de niveaux : <code>levels[0] = 0</code> et <code>1 <= levels[i] <= levels[i - 1] + 1</code>.
+	 * @return Le <code>CompactTree</code> correspondant.
+	 * @throws IllegalArgumentException Si la suite n'est pas une suite de niveaux.
+	 * @see model.tree.RootedTreeEnumerator
+	 * @since 1.3
+	 * @version 1.0
+	 */
+	public static CompactTree fromLevelSequence(int[] levels) {
+		int n = levels.length;
+		if (n == 0 || levels[0] != 0) {
+			throw new IllegalArgumentException("La suite de niveaux doit commencer par la racine");
+		}
+		int[] parent = new int[n];
+		int[] label = new int[n];
+		int[] last = new int[n];
+		parent[0] = NONE;
+		for (int i = 1; i < n; i++) {
+			if (levels[i] < 1 || levels[i] > levels[i - 1] + 1) {
+				throw new IllegalArgumentException("Niveau invalide à l'indice " + i + " : " + levels[i]);
+			}
+			parent[i] = last[levels[i] - 1];
+			last[levels[i]] = i;
+			label[i] = i;
+		}
+		return new CompactTree(parent, label);
+	}
+
+	/**
+	 * Retourne le nombre de noeuds du <code>CompactTree</code>.
+	 * @return Le nombre de noeuds.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Retourne le parent du noeud passé en paramètre.
+	 * @param node Indice du noeud.
+	 * @return L'indice du parent, <code>NONE</code> pour la racine.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getParent(int node) {
+		return this.parent[node];
+	}
+
+	/**
+	 * Retourne le premier fils du noeud passé en paramètre.
+	 * @param node Indice du noeud.
+	 * @return L'indice du premier fils, <code>NONE</code> pour une feuille.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getFirstChild(int node) {
+		return this.firstChild[node];
+	}
+
+	/**
+	 * Retourne le frère suivant du noeud passé en paramètre.
+	 * @param node Indice du noeud.
+	 * @return L'indice du frère suivant, <code>NONE</code> pour le dernier fils.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getNextSibling(int node) {
+		return this.nextSibling[node];
+	}
+
+	/**
+	 * Retourne le <code>label</code> du noeud passé en paramètre.
+	 * @param node Indice du noeud.
+	 * @return Le <code>label</code> du noeud.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getLabel(int node) {
+		return this.label[node];
+	}
+
+	/**
+	 * Retourne la racine du <code>CompactTree</code>, c'est à dire toujours l'indice 0.
+	 * @return La racine.
+	 * @see javax.swing.tree.TreeModel#getRoot()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	@Override
+	public Object getRoot() {
+		return Integer.valueOf(0);
+	}
+
+	/**
+	 * Retourne le fils d'<code>index</code> donné du noeud passé en paramètre.
+	 * @return Le fils correspondant ou <code>null</code> s'il n'existe pas.
+	 * @see javax.swing.tree.TreeModel#getChild(java.lang.Object, int)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	@Override
+	public Object getChild(Object parent, int index) {
+		if (parent != null && parent instanceof Integer) {
+			int child = this.firstChild[(Integer) parent];
+			for (int i = 0; i < index && child != NONE; i++) {
+				child = this.nextSibling[child];
+			}
+			if (child != NONE) {
+				return Integer.valueOf(child);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Retourne le nombre de fils du noeud passé en paramètre.
+	 * @return Le nombre de fils ou 0 si le noeud n'en a pas.
+	 * @see javax.swing.tree.TreeModel#getChildCount(java.lang.Object)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	@Override
+	public int getChildCount(Object parent) {
+		if (parent != null && parent instanceof Integer) {
+			return this.getChildCount(((Integer) parent).intValue());
+		}
+		return 0;
+	}
+
+	/**
+	 * Retourne le nombre de fils du noeud passé en paramètre.
+	 * @param node Indice du noeud.
+	 * @return Le nombre de fils.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getChildCount(int node) {
+		int count = 0;
+		for (int child = this.firstChild[node]; child != NONE; child = this.nextSibling[child]) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Retourne l'<code>index</code> du fils passé en paramètre.
+	 * @return L'<code>index</code> du fils ou -1 s'il n'est pas un fils du parent.
+	 * @see javax.swing.tree.TreeModel#getIndexOfChild(java.lang.Object, java.lang.Object)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	@Override
+	public int getIndexOfChild(Object parent, Object child) {
+		if (parent != null && parent instanceof Integer && child instanceof Integer) {
+			int index = 0;
+			for (int c = this.firstChild[(Integer) parent]; c != NONE; c = this.nextSibling[c]) {
+				if (c == (Integer) child) {
+					return index;
+				}
+				index++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Retourne le fait que le noeud soit une feuille ou non.
+	 * @return true si le noeud est une feuille, false sinon.
+	 * @see javax.swing.tree.TreeModel#isLeaf(java.lang.Object)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	@Override
+	public boolean isLeaf(Object node) {
+		return this.getChildCount(node) == 0;
+	}
+
+	/**
+	 * @see javax.swing.tree.TreeModel#addTreeModelListener(javax.swing.event.TreeModelListener)
+	 */
+	@Override
+	public void addTreeModelListener(TreeModelListener l) {
+	}
+
+	/**
+	 * @see javax.swing.tree.TreeModel#removeTreeModelListener(javax.swing.event.TreeModelListener)
+	 */
+	@Override
+	public void removeTreeModelListener(TreeModelListener l) {
+	}
+
+	/**
+	 * @see javax.swing.tree.TreeModel#valueForPathChanged(javax.swing.tree.TreePath, java.lang.Object)
+	 */
+	@Override
+	public void valueForPathChanged(TreePath path, Object newValue) {
+	}
+
+	/**
+	 * Génère l'ordre préfixe du parcours en profondeur de notre <code>CompactTree</code>.
+	 * @return Le tableau des indices dans l'ordre préfixe.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int[] prefixeDepthCourse() {
+		int[] result = new int[this.size];
+		int[] stack = new int[this.size];
+		int top = 0;
+		int count = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int node = stack[--top];
+			result[count++] = node;
+			int first = top;
+			for (int child = this.firstChild[node]; child != NONE; child = this.nextSibling[child]) {
+				stack[top++] = child;
+			}
+			for (int i = first, j = top - 1; i < j; i++, j--) {
+				int tmp = stack[i];
+				stack[i] = stack[j];
+				stack[j] = tmp;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Génère l'ordre suffixe du parcours en profondeur de notre <code>CompactTree</code>.
+	 * @return Le tableau des indices dans l'ordre suffixe.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int[] suffixeDepthCourse() {
+		int[] result = new int[this.size];
+		int[] stack = new int[this.size];
+		int top = 0;
+		int count = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int node = stack[top - 1];
+			int child = this.firstChild[node];
+			if (child != NONE && (count == 0 || this.parent[result[count - 1]] != node)) {
+				stack[top++] = child;
+			} else {
+				top--;
+				result[count++] = node;
+				if (node != 0 && this.nextSibling[node] != NONE) {
+					stack[top++] = this.nextSibling[node];
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Retourne la liste des noeuds à supprimer lorsque l'on joue sur <code>node</code>,
+	 * c'est à dire le chemin de <code>node</code> jusqu'à la racine.
+	 * @param node Indice du noeud joué.
+	 * @return Les indices du chemin, en commençant par <code>node</code>.
+	 * @see model.tree.Tree#getToDelete(Node)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int[] getToDelete(int node) {
+		int length = 0;
+		for (int n = node; n != NONE; n = this.parent[n]) {
+			length++;
+		}
+		int[] result = new int[length];
+		int i = 0;
+		for (int n = node; n != NONE; n = this.parent[n]) {
+			result[i++] = n;
+		}
+		return result;
+	}
+
+	/**
+	 * Joue sur le noeud passé en paramètre et retourne la forêt restante sous forme d'un <code>CompactTree</code>
+	 * possédant une racine "fantôme" d'indice 0, à la manière de <code>GhostTree</code>.
+	 * @param node Indice du noeud joué.
+	 * @return La forêt restante, rattachée à une racine "fantôme".
+	 * @see model.tree.GhostTree#DeleteGhostTree(Node)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public CompactTree delete(int node) {
+		boolean[] deleted = new boolean[this.size];
+		int remaining = this.size;
+		for (int n = node; n != NONE; n = this.parent[n]) {
+			deleted[n] = true;
+			remaining--;
+		}
+		int[] index = new int[this.size];
+		int[] newParent = new int[remaining + 1];
+		int[] newLabel = new int[remaining + 1];
+		newParent[0] = NONE;
+		int count = 1;
+		for (int i = 0; i < this.size; i++) {
+			if (!deleted[i]) {
+				index[i] = count;
+				newParent[count] = deleted[this.parent[i]] ? 0 : index[this.parent[i]];
+				newLabel[count] = this.label[i];
+				count++;
+			}
+		}
+		return new CompactTree(newParent, newLabel);
+	}
+
+	/**
+	 * Fonction permettant de retourner le "code-barre" de notre <code>CompactTree</code>.
+	 * 
+	 * V 1.1 : 
+	 * <ul>
+	 * 	<li>Calcul à la manière d'Aho, Hopcroft et Ullman : on parcourt l'arbre niveau par niveau en partant du plus profond,
+	 * 	et l'on attribue à chaque noeud un rang entier tel que deux noeuds d'un même niveau ont le même rang si et seulement si leurs sous-arbres
+	 * 	sont isomorphes, l'ordre des rangs étant celui des "code-barre". Le "code-barre" n'est écrit qu'une seule fois, à la fin.</li>
+	 * </ul>
+	 * Le rang d'un noeud dépend uniquement de la suite des rangs de ses fils, rangés dans l'ordre des <code>Barcode</code>
+	 * (taille puis rang). Le calcul est en O(n log n).
+	 * @return Le <code>Barcode</code> de l'arbre.
+	 * @see model.tree.Barcode#compareTo(Barcode)
+	 * @see model.tree.IntSorter#sort(int[], int, int, int[], IntSorter.IntComparator)
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public Barcode getBarcode() {
+		final int n = this.size;
+		// Parcours en largeur : les fils d'un même noeud sont contigus dans order.
+		final int[] order = new int[n];
+		final int[] childStart = new int[n];
+		final int[] childCount = new int[n];
+		int[] depth = new int[n];
+		int[] levelStart = new int[n + 1];
+		int levels = 0;
+		int tail = 1;
+		order[0] = 0;
+		for (int head = 0; head < tail; head++) {
+			int node = order[head];
+			if (head == 0 || depth[node] != depth[order[head - 1]]) {
+				levelStart[levels++] = head;
+			}
+			childStart[node] = tail;
+			for (int child = this.firstChild[node]; child != NONE; child = this.nextSibling[child]) {
+				depth[child] = depth[node] + 1;
+				order[tail++] = child;
+			}
+			childCount[node] = tail - childStart[node];
+		}
+		levelStart[levels] = n;
+		
+		final int[] subtreeSize = new int[n];
+		for (int i = n - 1; i >= 0; i--) {
+			subtreeSize[order[i]]++;
+			if (i > 0) {
+				subtreeSize[this.parent[order[i]]] += subtreeSize[order[i]];
+			}
+		}
+		
+		// Attribution des rangs, du niveau le plus profond jusqu'à la racine.
+		final int[] rank = new int[n];
+		int[] levelNodes = new int[n];
+		int[] buffer = new int[n];
+		IntSorter.IntComparator childOrder = new IntSorter.IntComparator() {
+			public int compare(int a, int b) {
+				if (subtreeSize[a] != subtreeSize[b]) {
+					return subtreeSize[a] < subtreeSize[b] ? -1 : 1;
+				}
+				return rank[a] < rank[b] ? -1 : (rank[a] == rank[b] ? 0 : 1);
+			}
+		};
+		IntSorter.IntComparator nodeOrder = new IntSorter.IntComparator() {
+			public int compare(int a, int b) {
+				int length = Math.min(childCount[a], childCount[b]);
+				for (int i = 0; i < length; i++) {
+					int ra = rank[order[childStart[a] + i]];
+					int rb = rank[order[childStart[b] + i]];
+					if (ra != rb) {
+						return ra < rb ? -1 : 1;
+					}
+				}
+				return childCount[a] < childCount[b] ? -1 : (childCount[a] == childCount[b] ? 0 : 1);
+			}
+		};
+		for (int level = levels - 1; level >= 0; level--) {
+			int from = levelStart[level];
+			int to = levelStart[level + 1];
+			for (int i = from; i < to; i++) {
+				int node = order[i];
+				IntSorter.sort(order, childStart[node], childStart[node] + childCount[node], buffer, childOrder);
+				levelNodes[i] = node;
+			}
+			IntSorter.sort(levelNodes, from, to, buffer, nodeOrder);
+			int current = 0;
+			rank[levelNodes[from]] = current;
+			for (int i = from + 1; i < to; i++) {
+				if (nodeOrder.compare(levelNodes[i - 1], levelNodes[i]) != 0) {
+					current++;
+				}
+				rank[levelNodes[i]] = current;
+			}
+		}
+		
+		// Ecriture du "code-barre" par parcours en profondeur, les fils étant désormais triés.
+		long[] bits = new long[Barcode.words(2 * n)];
+		int[] stack = new int[n];
+		int[] next = new int[n];
+		int top = 0;
+		int position = 0;
+		stack[top] = 0;
+		next[top++] = 0;
+		bits[0] |= Barcode.mask(position++);
+		while (top > 0) {
+			int node = stack[top - 1];
+			if (next[top - 1] < childCount[node]) {
+				int child = order[childStart[node] + next[top - 1]++];
+				bits[position / 64] |= Barcode.mask(position);
+				position++;
+				stack[top] = child;
+				next[top++] = 0;
+			} else {
+				position++;
+				top--;
+			}
+		}
+		return new Barcode(bits, 2 * n);
+	}
+
+	/**
+	 * Retourne l'empreinte canonique de notre <code>CompactTree</code>, égale à celle de son <code>Barcode</code>.
+	 * @return L'empreinte canonique.
+	 * @see model.tree.Barcode#getCanonicalHash()
+	 * @since 1.2
+	 * @version 1.0
+	 */
+	public long getCanonicalHash() {
+		return TreeHash.node(this.childSums(new long[this.size])[0]);
+	}
+
+	/**
+	 * Retourne, pour chaque noeud, l'empreinte canonique de la forêt obtenue en le jouant,
+	 * c'est-à-dire l'empreinte de <code>delete(node).getBarcode()</code>, sans construire ces forêts.
+	 * Si S(v) est la somme des contributions des fils de v, la somme F(v) des contributions des arbres restants
+	 * vérifie F(racine) = S(racine) et F(v) = F(parent(v)) + S(v) - child(h(v)) : un seul parcours suffit.
+	 * @return Le tableau des empreintes, indexé par indice de noeud.
+	 * @see model.tree.CompactTree#delete(int)
+	 * @see model.tree.TreeHash
+	 * @since 1.2
+	 * @version 1.0
+	 */
+	public long[] getMoveHashes() {
+		long[] hash = new long[this.size];
+		long[] sums = this.childSums(hash);
+		long[] moves = new long[this.size];
+		for (int i = 1; i < this.size; i++) {
+			sums[i] += sums[this.parent[i]] - TreeHash.child(hash[i]);
+		}
+		for (int i = 0; i < this.size; i++) {
+			moves[i] = TreeHash.node(sums[i]);
+		}
+		return moves;
+	}
+
+	/**
+	 * Retourne l'empreinte canonique du sous-arbre issu de chaque noeud.
+	 * @return Le tableau des empreintes, indexé par indice de noeud.
+	 * @since 1.2
+	 * @version 1.0
+	 */
+	public long[] getSubtreeHashes() {
+		long[] hash = new long[this.size];
+		this.childSums(hash);
+		return hash;
+	}
+
+	/**
+	 * Retourne, pour chaque noeud, le nombre de noeuds de la forêt obtenue en le jouant, racine "fantôme" comprise,
+	 * c'est-à-dire <code>delete(node).getSize()</code> : jouer un noeud de profondeur d retire les d + 1 noeuds du chemin vers la racine.
+	 * @return Le tableau des tailles, indexé par indice de noeud.
+	 * @see model.tree.CompactTree#getMoveHashes()
+	 * @since 1.6
+	 * @version 1.0
+	 */
+	public int[] getMoveSizes() {
+		int[] sizes = new int[this.size];
+		sizes[0] = this.size;
+		for (int i = 1; i < this.size; i++) {
+			sizes[i] = sizes[this.parent[i]] - 1;
+		}
+		return sizes;
+	}
+
+	/**
+	 * Retourne le nombre de noeuds du sous-arbre issu de chaque noeud.
+	 * @return Le tableau des tailles, indexé par indice de noeud.
+	 * @see model.tree.CompactTree#getSubtreeHashes()
+	 * @since 1.6
+	 * @version 1.0
+	 */
+	public int[] getSubtreeSizes() {
+		int[] sizes = new int[this.size];
+		for (int i = this.size - 1; i >= 0; i--) {
+			sizes[i]++;
+			if (i > 0) {
+				sizes[this.parent[i]] += sizes[i];
+			}
+		}
+		return sizes;
+	}
+
+	/**
+	 * Retourne, pour chaque noeud, le représentant de son orbite sous l'action des automorphismes de l'arbre.
+	 * Deux noeuds sont dans la même orbite si et seulement si leurs parents le sont et que leurs sous-arbres sont isomorphes :
+	 * jouer l'un ou l'autre donne alors la même forêt, à isomorphisme près.
+	 * Les fils de chaque noeud sont triés par empreinte puis par indice ; les fils d'un noeud sont alors associés un à un,
+	 * dans cet ordre, à ceux du représentant de l'orbite de leur parent, qui ont les mêmes empreintes. Le calcul est en O(n log n).
+	 * @return Le tableau des représentants, indexé par indice de noeud : <code>orbits[i] == i</code> si le noeud i est un représentant.
+	 * Le parent d'un représentant est lui-même un représentant, et la racine est son propre représentant.
+	 * @see model.tree.CompactTree#getSubtreeHashes()
+	 * @see model.tree.IntSorter#sort(int[], int, int, int[], IntSorter.IntComparator)
+	 * @since 1.4
+	 * @version 1.0
+	 */
+	public int[] getOrbits() {
+		final long[] hash = this.getSubtreeHashes();
+		int[] start = new int[this.size + 1];
+		for (int i = 1; i < this.size; i++) {
+			start[this.parent[i] + 1]++;
+		}
+		for (int i = 0; i < this.size; i++) {
+			start[i + 1] += start[i];
+		}
+		int[] children = new int[Math.max(this.size - 1, 0)];
+		int[] fill = Arrays.copyOf(start, this.size);
+		for (int i = 1; i < this.size; i++) {
+			children[fill[this.parent[i]]++] = i;
+		}
+		int[] buffer = new int[children.length];
+		IntSorter.IntComparator byHash = new IntSorter.IntComparator() {
+			public int compare(int a, int b) {
+				if (hash[a] != hash[b]) {
+					return hash[a] < hash[b] ? -1 : 1;
+				}
+				return a < b ? -1 : (a == b ? 0 : 1);
+			}
+		};
+		for (int p = 0; p < this.size; p++) {
+			IntSorter.sort(children, start[p], start[p + 1], buffer, byHash);
+		}
+		// Le représentant d'un groupe de fils isomorphes est le premier du groupe, chez le représentant de l'orbite du parent.
+		int[] orbits = new int[this.size];
+		for (int p = 0; p < this.size; p++) {
+			int shift = start[orbits[p]] - start[p];
+			int group = start[p];
+			for (int j = start[p]; j < start[p + 1]; j++) {
+				if (hash[children[j]] != hash[children[group]]) {
+					group = j;
+				}
+				orbits[children[j]] = children[group + shift];
+			}
+		}
+		return orbits;
+	}
+
+	/**
+	 * Calcule l'empreinte de chaque sous-arbre ainsi que la somme des contributions des fils de chaque noeud.
+	 * Les indices vérifiant <code>parent[i] < i</code>, il suffit de les parcourir en ordre décroissant.
+	 * @param hash Tableau recevant l'empreinte de chaque sous-arbre.
+	 * @return Le tableau des sommes des contributions des fils.
+	 * @since 1.2
+	 * @version 1.0
+	 */
+	private long[] childSums(long[] hash) {
+		long[] sums = new long[this.size];
+		for (int i = this.size - 1; i >= 0; i--) {
+			hash[i] = TreeHash.node(sums[i]);
+			if (i > 0) {
+				sums[this.parent[i]] += TreeHash.child(hash[i]);
+			}
+		}
+		return sums;
+	}
+
+	/**
+	 * Convertit notre <code>CompactTree</code> en graphe de <code>Node</code>.
+	 * @return Le tableau des <code>Node</code> créés, indexé par indice de noeud. La racine est en 0.
+	 * @see model.tree.Node#addSuccessor(Node)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public Node[] toNodes() {
+		Node[] nodes = new Node[this.size];
+		int[] depth = new int[this.size];
+		nodes[0] = new Node(String.valueOf(this.label[0]), 0);
+		for (int i = 1; i < this.size; i++) {
+			depth[i] = depth[this.parent[i]] + 1;
+			nodes[i] = new Node(String.valueOf(this.label[i]), depth[i]);
+		}
+		for (int i = 0; i < this.size; i++) {
+			for (int child = this.firstChild[i]; child != NONE; child = this.nextSibling[child]) {
+				nodes[i].addSuccessor(nodes[child]);
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Convertit notre <code>CompactTree</code> en <code>Tree</code>.
+	 * @return Le <code>Tree</code> équivalent.
+	 * @see model.tree.CompactTree#toNodes()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public Tree toTree() {
+		return new Tree(this.toNodes()[0]);
+	}
+
+	/**
+	 * Retourne une représentation textuelle du <code>CompactTree</code>, au même format que <code>Tree#toString()</code>.
+	 * @return Une représentation textuelle de l'arbre.
+	 * @see model.tree.Tree#toString()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		for (int node : this.prefixeDepthCourse()) {
+			str.append("Node " + this.label[node] + " ayant pour enfants : ");
+			for (int child = this.firstChild[node]; child != NONE; child = this.nextSibling[child]) {
+				str.append(this.label[child]);
+				if (this.nextSibling[child] != NONE) {
+					str.append(",");
+				}
+			}
+			str.append("\n");
+		}
+		return str.toString();
+	}
+
+	/**
+	 * Convertit un <code>label</code> textuel en entier.
+	 * @param label <code>Label</code> du <code>Node</code>.
+	 * @param defaultValue Valeur utilisée si le <code>label</code> n'est pas numérique.
+	 * @return Le <code>label</code> sous forme d'entier.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static int parseLabel(String label, int defaultValue) {
+		try {
+			return Integer.parseInt(label);
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package model.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classe <code>CorePartition</code> représentant le partage des <code>Node</code> d'un arbre entre son noyau et le complémentaire du noyau.
+ * Un <code>Node</code> appartient au noyau si et seulement si aucun de ses successeurs n'y appartient (en particulier, les feuilles y appartiennent).
+ * Le partage est calculé en un seul parcours suffixe : l'appartenance de chaque <code>Node</code> est marquée dans un tableau de booléens,
+ * et une pile de booléens indique pour chaque <code>Node</code> en cours d'exploration si l'un de ses successeurs est dans le noyau.
+ * @author Grégoire
+ * @date 9 fév. 2016
+ * @see model.tree.Tree#getCorePartition()
+ * @see model.tree.Tree#searchCore()
+ * @see model.tree.Tree#searchComplementCore()
+ * @version 1.0
+ */
+public class CorePartition {
+
+	/**
+	 * <code>Node</code> de l'arbre dans l'ordre suffixe.
+	 */
+	private final List<Node> suffixe;
+
+	/**
+	 * Indique, pour chaque <code>Node</code> de <code>suffixe</code>, s'il appartient au noyau.
+	 */
+	private final boolean[] core;
+
+	/**
+	 * Nombre de <code>Node</code> du noyau.
+	 */
+	private final int coreSize;
+
+	/**
+	 * Constructeur de la classe <code>CorePartition</code>, effectuant le parcours suffixe de l'arbre.
+	 * @param root Racine de l'arbre, éventuellement <code>null</code> pour un arbre vide.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	CorePartition(Node root) {
+		this.suffixe = new ArrayList<Node>();
+		boolean[] core = new boolean[16];
+		int coreSize = 0;
+		if (root != null) {
+			Node[] stack = new Node[16];
+			int[] next = new int[16];
+			boolean[] coreChild = new boolean[16];
+			int top = 0;
+			stack[top] = root;
+			next[top] = 0;
+			coreChild[top++] = false;
+			while (top > 0) {
+				Node n = stack[top - 1];
+				if (next[top - 1] < n.getSuccessorCount()) {
+					if (top == stack.length) {
+						stack = Arrays.copyOf(stack, top * 2);
+						next = Arrays.copyOf(next, top * 2);
+						coreChild = Arrays.copyOf(coreChild, top * 2);
+					}
+					stack[top] = n.getSuccessor(next[top - 1]++);
+					next[top] = 0;
+					coreChild[top++] = false;
+				} else {
+					top--;
+					stack[top] = null;
+					boolean inCore = !coreChild[top];
+					if (top > 0 && inCore) {
+						coreChild[top - 1] = true;
+					}
+					if (this.suffixe.size() == core.length) {
+						core = Arrays.copyOf(core, core.length * 2);
+					}
+					core[this.suffixe.size()] = inCore;
+					this.suffixe.add(n);
+					if (inCore) {
+						coreSize++;
+					}
+				}
+			}
+		}
+		this.core = core;
+		this.coreSize = coreSize;
+	}
+
+	/**
+	 * Retourne le nombre de <code>Node</code> de l'arbre.
+	 * @return Le nombre de <code>Node</code>.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int size() {
+		return this.suffixe.size();
+	}
+
+	/**
+	 * Retourne le <code>Node</code> de rang donné dans l'ordre suffixe.
+	 * @param index Rang du <code>Node</code>, entre 0 et <code>size() - 1</code>.
+	 * @return Le <code>Node</code> correspondant.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public Node getNode(int index) {
+		return this.suffixe.get(index);
+	}
+
+	/**
+	 * Indique si le <code>Node</code> de rang donné dans l'ordre suffixe appartient au noyau.
+	 * @param index Rang du <code>Node</code>, entre 0 et <code>size() - 1</code>.
+	 * @return true si le <code>Node</code> appartient au noyau, false s'il appartient à son complémentaire.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public boolean isCore(int index) {
+		return this.core[index];
+	}
+
+	/**
+	 * Retourne les <code>Node</code> du noyau, dans l'ordre suffixe.
+	 * @return Une nouvelle <code>List<Node></code> contenant le noyau.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public List<Node> getCore() {
+		return this.select(true, this.coreSize);
+	}
+
+	/**
+	 * Retourne les <code>Node</code> du complémentaire du noyau, dans l'ordre suffixe : les successeurs d'un <code>Node</code> sont placés avant lui.
+	 * @return Une nouvelle <code>List<Node></code> contenant le complémentaire du noyau.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public List<Node> getComplementCore() {
+		return this.select(false, this.suffixe.size() - this.coreSize);
+	}
+
+	/**
+	 * Retourne les <code>Node</code> appartenant ou non au noyau, dans l'ordre suffixe.
+	 * @param inCore true pour le noyau, false pour son complémentaire.
+	 * @param size Nombre de <code>Node</code> sélectionnés.
+	 * @return Les <code>Node</code> sélectionnés.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private List<Node> select(boolean inCore, int size) {
+		List<Node> result = new ArrayList<Node>(size);
+		for (int i = 0; i < this.suffixe.size(); i++) {
+			if (this.core[i] == inCore) {
+				result.add(this.suffixe.get(i));
+			}
+		}
+		return result;
+	}
+}
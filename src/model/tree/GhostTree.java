@@ -7,10 +7,15 @@ import java.util.List;
  * Classe <code>GhostTree</code> représentant un arbre possèdant un <code>Node</code> "fantôme".
  * Cela signifie que plutôt de générer une forêt d'arbre, nous préférons représenter les arbres 
  * sous forme d'un arbre possèdant une racine commune a tous les arbres.
+ * 
+ * V 1.1 :
+ * <ul>
+ * 	<li>Correction de <code>suffixeDepthCourseGhost(Node)</code> qui supprimait un indice hors de la liste au lieu de la racine "fantôme".</li>
+ * </ul>
  * @author Grégoire, Nicolas
  * @date 11 déc. 2015
  * @see model.tree.Tree
- * @version 1.0
+ * @version 1.1
  */
 public class GhostTree extends Tree {
 	
@@ -57,11 +62,11 @@ public class GhostTree extends Tree {
 	 * @return Une<code>List<Node></code> représentant le tableau S.
 	 * @see model.tree.Tree#suffixeDepthCourse(Node)
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public List<Node> suffixeDepthCourseGhost(Node root) {
 		List<Node> l = super.suffixeDepthCourse(root);
-		l.remove(l.size());
+		l.remove(l.size() - 1);
 		return l;
 	}
 
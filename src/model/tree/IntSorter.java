@@ -0,0 +1,83 @@
+package model.tree;
+
+/**
+ * Classe utilitaire <code>IntSorter</code> permettant de trier des tableaux d'indices (<code>int</code>)
+ * suivant un ordre quelconque, sans passer par des <code>Integer</code>.
+ * Le tri utilisé est un tri fusion, il est donc stable.
+ * @author Grégoire
+ * @date 27 jan. 2016
+ * @version 1.0
+ */
+final class IntSorter {
+
+	/**
+	 * Taille en dessous de laquelle on utilise un tri par insertion.
+	 */
+	private static final int INSERTION_THRESHOLD = 16;
+
+	/**
+	 * Interface représentant l'ordre utilisé pour trier les indices.
+	 * @author Grégoire
+	 * @date 27 jan. 2016
+	 * @version 1.0
+	 */
+	interface IntComparator {
+
+		/**
+		 * Compare deux indices.
+		 * @param a Premier indice.
+		 * @param b Second indice.
+		 * @return Un entier négatif, nul ou positif suivant si <code>a</code> est inférieur, égal ou supérieur à <code>b</code>.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		int compare(int a, int b);
+	}
+
+	/**
+	 * Constructeur privé, cette classe n'ayant que des méthodes <code>static</code>.
+	 */
+	private IntSorter() {
+	}
+
+	/**
+	 * Trie la portion <code>[from, to[</code> du tableau passé en paramètre.
+	 * @param a Tableau à trier.
+	 * @param from Premier indice (inclus).
+	 * @param to Dernier indice (exclu).
+	 * @param buffer Tableau de travail d'au moins <code>to</code> cases.
+	 * @param comparator Ordre utilisé.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	static void sort(int[] a, int from, int to, int[] buffer, IntComparator comparator) {
+		if (to - from <= INSERTION_THRESHOLD) {
+			for (int i = from + 1; i < to; i++) {
+				int value = a[i];
+				int j = i - 1;
+				while (j >= from && comparator.compare(a[j], value) > 0) {
+					a[j + 1] = a[j];
+					j--;
+				}
+				a[j + 1] = value;
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		IntSorter.sort(a, from, middle, buffer, comparator);
+		IntSorter.sort(a, middle, to, buffer, comparator);
+		if (comparator.compare(a[middle - 1], a[middle]) <= 0) {
+			return;
+		}
+		System.arraycopy(a, from, buffer, from, to - from);
+		int i = from;
+		int j = middle;
+		for (int k = from; k < to; k++) {
+			if (j >= to || (i < middle && comparator.compare(buffer[i], buffer[j]) <= 0)) {
+				a[k] = buffer[i++];
+			} else {
+				a[k] = buffer[j++];
+			}
+		}
+	}
+}
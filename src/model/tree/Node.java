@@ -8,6 +8,32 @@ import java.util.List;
  * Classe <code>Node</code> permettant de générer des noeuds que l'on
  * caractérisent par leur label ainsi que par une suite de successeurs.
  * 
+ * V 1.6 : 
+ * <ul>
+ * 	<li>L'<code>id</code> est le rang du <code>Node</code> dans l'ordre préfixe du <code>Tree</code> l'ayant indexé, et non plus la valeur du <code>label</code>,
+ * 	qui n'était pas unique ("07" et "7").</li>
+ * 	<li><code>equals(Object)</code> et <code>hashCode()</code> reposent sur l'identité de l'objet.</li>
+ * 	<li><code>setSuccessors(List)</code> et <code>addSuccessor(Node)</code> invalident l'index du <code>Tree</code> contenant le <code>Node</code>.</li>
+ * <ul> 
+ * 
+ * V 1.5 : 
+ * <ul>
+ * 	<li>Ajout de l'attribut <code>id</code>, entier lu dans le <code>label</code>, et de la méthode <code>getId()</code>.</li>
+ * 	<li><code>equals(Object)</code> compare l'<code>id</code> puis le contenu du <code>label</code> plutôt que sa référence, et <code>hashCode()</code> est ajoutée :
+ * 	les <code>Node</code> peuvent être placés dans un <code>HashSet</code> ou une <code>HashMap</code>.</li>
+ * <ul> 
+ * 
+ * V 1.4 : 
+ * <ul>
+ * 	<li>La méthode <code>innerTree()</code> n'est plus récursive et supporte des arbres de très grande profondeur.</li>
+ * <ul> 
+ * 
+ * V 1.3 : 
+ * <ul>
+ * 	<li>Ajout de l'attribut optionnel <code>parent</code> permettant de remonter jusqu'à la racine sans parcourir l'arbre.</li>
+ * 	<li>Ajout des méthodes <code>getParent()</code> et <code>setParent(Node)</code> liées au nouvel attribut <code>parent</code>.</li>
+ * <ul> 
+ * 
  * V 1.2 : 
  * <ul>
  * 	<li>Implémentation supplémentaire lié à la méthode <code>Ulehla</code>.</li>
@@ -24,7 +50,7 @@ import java.util.List;
  * <ul> 
  * @author Nicolas
  * @date 15 nov. 2015
- * @version 1.2
+ * @version 1.6
  */
 public class Node {
 	
@@ -33,6 +59,16 @@ public class Node {
 	 */
 	private String label;
 	
+	/**
+	 * Identifiant entier du noeud : son rang dans l'ordre préfixe du <code>Tree</code> l'ayant indexé, -1 s'il n'a jamais été indexé.
+	 */
+	private int id;
+	
+	/**
+	 * <code>Tree</code> dont l'index contient ce noeud, prévenu lorsque ses successeurs changent.
+	 */
+	private Tree indexTree;
+	
 	/**
 	 * Liste de tout les successeurs du noeud courant.
 	 */
@@ -49,6 +85,13 @@ public class Node {
 	 */
 	private int nimber;
 	
+	/**
+	 * Parent du <code>Node</code> courant, <code>null</code> pour une racine ou si celui-ci n'est pas renseigné.
+	 * Un même <code>Node</code> pouvant être partagé par plusieurs <code>Tree</code> (voir <code>Tree#delete(Node)</code>),
+	 * ce lien est positionné par <code>Tree#linkParents()</code> et n'est valable que pour le dernier <code>Tree</code> l'ayant positionné.
+	 */
+	private Node parent;
+	
 	/**
 	 * Constructeur de la classe <code>Node</code> prenant en paramètre un <code>label</code>.
 	 * Ce constructeur peut être utilisé afin de crée des <code>Node</code>
@@ -57,10 +100,11 @@ public class Node {
 	 * On initialise donc notre <code>List<Node></code> a vide.
 	 * @param label Identifiant unique du <code>Node</code> courant.
 	 * @since 1.0
-	 * @version 1.2
+	 * @version 1.4
 	 */
 	public Node(String label, int depth) {
 		this.label = label;
+		this.id = -1;
 		this.depth = depth;
 		this.successors = new ArrayList<Node>();
 		this.nimber = 0;
@@ -96,6 +140,18 @@ public class Node {
         this(label, depth, Arrays.asList(successors));
     }
 	
+	/**
+	 * Constructeur de la classe <code>Node</code> prenant un <code>label</code> entier.
+	 * @param label Identifiant unique du <code>Node</code> courant.
+	 * @param depth Profondeur du <code>Node</code> courant.
+	 * @see model.tree.Node#Node(String, int)
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public Node(int label, int depth) {
+		this(String.valueOf(label), depth);
+	}
+	
 	/**
 	 * Retourne le successeur de numéro <code>index</code>
 	 * @param index Numéro du successeur a retourner.
@@ -162,6 +218,40 @@ public class Node {
 		return this.label;
 	}
 	
+	/**
+	 * Retourne l'identifiant entier du <code>Node</code> courant.
+	 * @return L'<code>id</code>, rang du <code>Node</code> dans l'ordre préfixe du dernier <code>Tree</code> l'ayant indexé, -1 s'il n'a jamais été indexé.
+	 * @see model.tree.Tree#getNode(int)
+	 * @since 1.5
+	 * @version 1.1
+	 */
+	public int getId() {
+		return this.id;
+	}
+	
+	/**
+	 * Retourne le <code>Tree</code> dont l'index contient le <code>Node</code> courant.
+	 * @return Le dernier <code>Tree</code> ayant indexé le <code>Node</code>, ou <code>null</code>.
+	 * @since 1.6
+	 * @version 1.0
+	 */
+	Tree getIndexTree() {
+		return this.indexTree;
+	}
+	
+	/**
+	 * Range le <code>Node</code> courant dans l'index d'un <code>Tree</code>.
+	 * @param tree <code>Tree</code> indexant le <code>Node</code>.
+	 * @param id Rang du <code>Node</code> dans l'ordre préfixe de <code>tree</code>.
+	 * @see model.tree.Tree#indexNodes()
+	 * @since 1.6
+	 * @version 1.0
+	 */
+	void setIndex(Tree tree, int id) {
+		this.indexTree = tree;
+		this.id = id;
+	}
+	
 	/**
 	 * Retourne la valeur du <code>Nimber</code> pour le <code>Node</code> courant.
 	 * Voir <code>Ulehla</code> pour plus de renseignement.
@@ -173,6 +263,17 @@ public class Node {
 		return this.nimber;
 	}
 
+	/**
+	 * Retourne le parent du <code>Node</code> courant.
+	 * @return Le parent, ou <code>null</code> s'il n'est pas renseigné.
+	 * @see model.tree.Tree#linkParents()
+	 * @since 1.3
+	 * @version 1.0
+	 */
+	public Node getParent() {
+		return this.parent;
+	}
+
 	/**
 	 * Affichage du <code>label</code>. 
 	 * Utilisable dans l'IHM.
@@ -187,34 +288,68 @@ public class Node {
 	
 	/**
 	 * Retourne une représentation textuel du sous arbre dont notre <code>Node</code> courant est une racine.
+	 * Le parcours utilise une pile explicite de <code>Node</code> et de l'indice du prochain successeur à visiter.
 	 * @return Une représentation textuelle du sous abres du <code>Node</code> courant.
 	 * @see model.tree.Node#getLabel()
-	 * @see model.tree.Node#getSuccessors()
+	 * @see model.tree.Node#getSuccessor(int)
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public String innerTree() {
 		StringBuilder str = new StringBuilder();
+		Node[] stack = new Node[16];
+		int[] next = new int[16];
+		int top = 0;
 		str.append(this.getLabel() + "(");
-		for (Node node : this.getSuccessors()) {
-			str.append(node.innerTree());
+		stack[top] = this;
+		next[top++] = 0;
+		while (top > 0) {
+			Node node = stack[top - 1];
+			if (next[top - 1] < node.getSuccessorCount()) {
+				Node child = node.getSuccessor(next[top - 1]++);
+				str.append(child.getLabel() + "(");
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+					next = Arrays.copyOf(next, top * 2);
+				}
+				stack[top] = child;
+				next[top++] = 0;
+			} else {
+				str.append(")");
+				stack[--top] = null;
+			}
 		}
-		str.append(")");
 		return str.toString();
 	}
 	
 	/**
 	 * Modifie la liste des successeurs une fois le <code>Node</code> crée.
+	 * L'index du <code>Tree</code> contenant le <code>Node</code> est invalidé.
 	 * @param successors Liste des successeurs du <code>Node</code> courant.
+	 * @see model.tree.Tree#indexNodes()
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public void setSuccessors(List<Node> successors) {
 		this.successors = successors;
+		if (this.indexTree != null) {
+			this.indexTree.invalidateIndex();
+		}
 	}
 	
+	/**
+	 * Ajoute un successeur au <code>Node</code> courant.
+	 * L'index du <code>Tree</code> contenant le <code>Node</code> est invalidé.
+	 * @param n Nouveau successeur.
+	 * @see model.tree.Tree#indexNodes()
+	 * @since 1.0
+	 * @version 1.1
+	 */
 	public void addSuccessor(Node n){
 		this.successors.add(n);
+		if (this.indexTree != null) {
+			this.indexTree.invalidateIndex();
+		}
 	}
 	
 	/**
@@ -238,8 +373,37 @@ public class Node {
 	public void setNimber(int nimber) {
 		this.nimber = nimber;
 	}
+	
+	/**
+	 * Modifie le parent du <code>Node</code> courant.
+	 * @param parent Nouveau parent, <code>null</code> pour une racine.
+	 * @see model.tree.Tree#linkParents()
+	 * @since 1.3
+	 * @version 1.0
+	 */
+	public void setParent(Node parent) {
+		this.parent = parent;
+	}
 
+	/**
+	 * Deux <code>Node</code> sont égaux s'il s'agit du même objet : ni le <code>label</code>, que rien n'empêche de répéter,
+	 * ni l'<code>id</code>, qui dépend du <code>Tree</code> indexé, n'identifient un <code>Node</code> de manière unique.
+	 * @param o Objet comparé au <code>Node</code> courant.
+	 * @return true si <code>o</code> est le <code>Node</code> courant.
+	 * @since 1.0
+	 * @version 1.2
+	 */
 	public boolean equals(Object o) {
-		return this.getLabel() == ((Node) o).getLabel();
+		return this == o;
+	}
+	
+	/**
+	 * Retourne le code de hachage du <code>Node</code>, cohérent avec <code>equals(Object)</code>.
+	 * @return Le code de hachage de l'objet.
+	 * @since 1.5
+	 * @version 1.1
+	 */
+	public int hashCode() {
+		return System.identityHashCode(this);
 	}
 }
@@ -0,0 +1,21 @@
+package model.tree;
+
+/**
+ * Interface <code>NodeVisitor</code> permettant d'effectuer un traitement sur chaque <code>Node</code>
+ * rencontré lors d'un parcours de <code>Tree</code>, sans avoir à générer la liste des <code>Node</code> parcourus.
+ * @author Grégoire
+ * @date 26 jan. 2016
+ * @see model.tree.Tree#prefixeDepthCourse(Node, NodeVisitor)
+ * @see model.tree.Tree#suffixeDepthCourse(Node, NodeVisitor)
+ * @version 1.0
+ */
+public interface NodeVisitor {
+
+	/**
+	 * Méthode appelée pour chaque <code>Node</code> parcouru.
+	 * @param node <code>Node</code> courant du parcours.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public void visit(Node node);
+}
@@ -0,0 +1,597 @@
+package model.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classe <code>PersistentTree</code> représentant un arbre immuable, dont les sous-arbres peuvent être partagés.
+ * Chaque noeud est lui-même un <code>PersistentTree</code> et conserve l'empreinte canonique et la taille de son sous-arbre :
+ * extraire un sous-arbre ne coûte rien, et jouer un coup ne crée aucun noeud.
+ * La forêt obtenue en jouant un noeud est une <code>Forest</code> partageant tous les sous-arbres non touchés par le coup ;
+ * l'ensemble des forêts obtenues en jouant chacun des noeuds d'un arbre est construit en temps linéaire.
+ * Deux <code>PersistentTree</code> sont égaux s'ils ont la même empreinte canonique et la même taille, c'est-à-dire s'ils sont isomorphes
+ * (à une collision d'empreinte près, voir <code>TreeHash</code>).
+ * 
+ * V 1.1 :
+ * <ul>
+ * 	<li>Chaque noeud conserve ses fils deux à deux non isomorphes : les noeuds atteints en ne passant que par ces fils
+ * 	sont les représentants des orbites de l'arbre sous l'action de ses automorphismes, dont le nombre est aussi conservé.</li>
+ * </ul>
+ * 
+ * @author Grégoire
+ * @date 10 fév. 2016
+ * @see model.tree.TreeHash
+ * @see model.tree.CompactTree#getMoveHashes()
+ * @see model.tree.CompactTree#getOrbits()
+ * @version 1.1
+ */
+public final class PersistentTree {
+
+	/**
+	 * Tableau vide partagé par toutes les feuilles.
+	 */
+	private static final PersistentTree[] NO_CHILDREN = new PersistentTree[0];
+
+	/**
+	 * <code>label</code> du noeud.
+	 */
+	private final int label;
+
+	/**
+	 * Fils du noeud, jamais modifiés.
+	 */
+	private final PersistentTree[] children;
+
+	/**
+	 * Fils du noeud privés de ceux isomorphes à un fils précédent, <code>children</code> lui-même s'il n'y en a pas.
+	 */
+	private final PersistentTree[] distinct;
+
+	/**
+	 * Somme des contributions des fils, au sens de <code>TreeHash#child(long)</code>.
+	 */
+	private final long childSum;
+
+	/**
+	 * Empreinte canonique du sous-arbre.
+	 */
+	private final long hash;
+
+	/**
+	 * Nombre de noeuds du sous-arbre.
+	 */
+	private final int size;
+
+	/**
+	 * Nombre d'orbites du sous-arbre sous l'action de ses automorphismes.
+	 */
+	private final int orbitCount;
+
+	/**
+	 * Constructeur privé, le tableau <code>children</code> n'étant plus modifié par la suite.
+	 * @param label <code>label</code> du noeud.
+	 * @param children Fils du noeud.
+	 * @see model.tree.PersistentTree#distinct(PersistentTree[])
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	private PersistentTree(int label, PersistentTree[] children) {
+		long sum = 0;
+		int size = 1;
+		for (PersistentTree c : children) {
+			sum += TreeHash.child(c.hash);
+			size += c.size;
+		}
+		this.label = label;
+		this.children = children;
+		this.childSum = sum;
+		this.hash = TreeHash.node(sum);
+		this.size = size;
+		this.distinct = PersistentTree.distinct(children);
+		int orbitCount = 1;
+		for (PersistentTree c : this.distinct) {
+			orbitCount += c.orbitCount;
+		}
+		this.orbitCount = orbitCount;
+	}
+
+	/**
+	 * Retire d'un tableau de fils ceux isomorphes à un fils précédent.
+	 * Les empreintes sont d'abord triées afin de ne construire un nouveau tableau qu'en présence de doublons, ce qui est rare hors des feuilles.
+	 * @param children Fils d'un noeud.
+	 * @return Les fils deux à deux non isomorphes, dans l'ordre, ou <code>children</code> s'ils le sont déjà.
+	 * @since 1.1
+	 * @version 1.1
+	 */
+	private static PersistentTree[] distinct(PersistentTree[] children) {
+		if (children.length < 2) {
+			return children;
+		}
+		long[] hashes = new long[children.length];
+		for (int i = 0; i < children.length; i++) {
+			hashes[i] = children[i].hash;
+		}
+		Arrays.sort(hashes);
+		int count = 1;
+		for (int i = 1; i < hashes.length; i++) {
+			if (hashes[i] != hashes[i - 1]) {
+				count++;
+			}
+		}
+		if (count == children.length) {
+			return children;
+		}
+		PersistentTree[] distinct = new PersistentTree[count];
+		Set<Long> seen = new HashSet<Long>();
+		count = 0;
+		for (PersistentTree c : children) {
+			if (seen.add(c.hash)) {
+				distinct[count++] = c;
+			}
+		}
+		return distinct;
+	}
+
+	/**
+	 * Crée un arbre à partir de sa racine et de ses sous-arbres, qui sont partagés et non copiés.
+	 * @param label <code>label</code> de la racine.
+	 * @param children Sous-arbres issus des fils de la racine, dans l'ordre.
+	 * @return Le nouvel arbre.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static PersistentTree of(int label, PersistentTree... children) {
+		return new PersistentTree(label, children.length == 0 ? NO_CHILDREN : children.clone());
+	}
+
+	/**
+	 * Convertit un <code>CompactTree</code> en <code>PersistentTree</code> en temps linéaire.
+	 * Les indices vérifiant <code>parent[i] < i</code>, les noeuds sont créés par indice décroissant, chaque fils avant son parent.
+	 * @param ct Arbre à convertir.
+	 * @return L'arbre équivalent, dont les fils sont dans le même ordre.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static PersistentTree fromCompactTree(CompactTree ct) {
+		PersistentTree[] nodes = new PersistentTree[ct.getSize()];
+		for (int i = ct.getSize() - 1; i >= 0; i--) {
+			int count = 0;
+			for (int c = ct.getFirstChild(i); c != CompactTree.NONE; c = ct.getNextSibling(c)) {
+				count++;
+			}
+			PersistentTree[] children = count == 0 ? NO_CHILDREN : new PersistentTree[count];
+			count = 0;
+			for (int c = ct.getFirstChild(i); c != CompactTree.NONE; c = ct.getNextSibling(c)) {
+				children[count++] = nodes[c];
+				nodes[c] = null;
+			}
+			nodes[i] = new PersistentTree(ct.getLabel(i), children);
+		}
+		return nodes[0];
+	}
+
+	/**
+	 * Convertit notre arbre en <code>CompactTree</code>, les indices suivant l'ordre préfixe.
+	 * @return Le <code>CompactTree</code> équivalent.
+	 * @see model.tree.PersistentTree#prefixe()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public CompactTree toCompactTree() {
+		int[] parent = new int[this.size];
+		int[] label = new int[this.size];
+		PersistentTree[] stack = new PersistentTree[16];
+		int[] stackParent = new int[16];
+		int top = 0;
+		stack[top] = this;
+		stackParent[top++] = CompactTree.NONE;
+		int count = 0;
+		while (top > 0) {
+			PersistentTree t = stack[--top];
+			parent[count] = stackParent[top];
+			label[count] = t.label;
+			if (top + t.children.length > stack.length) {
+				int capacity = Math.max(stack.length * 2, top + t.children.length);
+				stack = Arrays.copyOf(stack, capacity);
+				stackParent = Arrays.copyOf(stackParent, capacity);
+			}
+			for (int i = t.children.length - 1; i >= 0; i--) {
+				stack[top] = t.children[i];
+				stackParent[top++] = count;
+			}
+			count++;
+		}
+		return new CompactTree(parent, label);
+	}
+
+	/**
+	 * Retourne le <code>label</code> de la racine.
+	 * @return Le <code>label</code>.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getLabel() {
+		return this.label;
+	}
+
+	/**
+	 * Retourne le nombre de fils de la racine.
+	 * @return Le nombre de fils.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getChildCount() {
+		return this.children.length;
+	}
+
+	/**
+	 * Retourne le sous-arbre issu d'un fils de la racine.
+	 * @param index Rang du fils.
+	 * @return Le sous-arbre, partagé avec notre arbre.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public PersistentTree getChild(int index) {
+		return this.children[index];
+	}
+
+	/**
+	 * Retourne le nombre de fils de la racine deux à deux non isomorphes.
+	 * @return Le nombre de fils distincts.
+	 * @since 1.1
+	 * @version 1.1
+	 */
+	public int getDistinctChildCount() {
+		return this.distinct.length;
+	}
+
+	/**
+	 * Retourne le sous-arbre issu d'un fils de la racine qui n'est isomorphe à aucun fils précédent.
+	 * Jouer dans un fils isomorphe donne les mêmes forêts : seuls les fils distincts doivent être explorés.
+	 * @param index Rang du fils parmi les fils distincts, dans l'ordre des fils.
+	 * @return Le sous-arbre, partagé avec notre arbre.
+	 * @since 1.1
+	 * @version 1.1
+	 */
+	public PersistentTree getDistinctChild(int index) {
+		return this.distinct[index];
+	}
+
+	/**
+	 * Retourne le nombre d'orbites des noeuds de l'arbre sous l'action de ses automorphismes,
+	 * tous les noeuds d'une orbite donnant la même forêt à isomorphisme près.
+	 * Les représentants sont la racine et, récursivement, ceux des fils distincts.
+	 * @return Le nombre d'orbites, au plus <code>getSize()</code>.
+	 * @see model.tree.CompactTree#getOrbits()
+	 * @since 1.1
+	 * @version 1.1
+	 */
+	public int getOrbitCount() {
+		return this.orbitCount;
+	}
+
+	/**
+	 * Retourne l'empreinte canonique de l'arbre, égale à celle de son <code>Barcode</code>.
+	 * @return L'empreinte canonique.
+	 * @see model.tree.Barcode#getCanonicalHash()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public long getHash() {
+		return this.hash;
+	}
+
+	/**
+	 * Retourne le nombre de noeuds de l'arbre.
+	 * @return Le nombre de noeuds.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Retourne tous les sous-arbres de notre arbre, c'est-à-dire ses noeuds, dans l'ordre préfixe.
+	 * @return Les sous-arbres, le premier étant notre arbre.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public PersistentTree[] prefixe() {
+		PersistentTree[] result = new PersistentTree[this.size];
+		PersistentTree[] stack = new PersistentTree[16];
+		int top = 0;
+		stack[top++] = this;
+		int count = 0;
+		while (top > 0) {
+			PersistentTree t = stack[--top];
+			result[count++] = t;
+			if (top + t.children.length > stack.length) {
+				stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + t.children.length));
+			}
+			for (int i = t.children.length - 1; i >= 0; i--) {
+				stack[top++] = t.children[i];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Joue sur un noeud et retourne la forêt restante, en temps proportionnel à la profondeur du noeud.
+	 * @param path Rangs des fils successifs menant de la racine au noeud joué, vide pour jouer la racine.
+	 * @return La forêt restante, partageant les sous-arbres de notre arbre.
+	 * @throws IndexOutOfBoundsException Si le chemin ne mène à aucun noeud.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public Forest play(int... path) {
+		Forest rest = null;
+		PersistentTree t = this;
+		for (int index : path) {
+			if (index < 0 || index >= t.children.length) {
+				throw new IndexOutOfBoundsException("Pas de fils " + index + " pour le noeud " + t.label);
+			}
+			rest = new Forest(t, index, rest);
+			t = t.children[index];
+		}
+		return new Forest(t, Forest.NONE, rest);
+	}
+
+	/**
+	 * Retourne les forêts obtenues en jouant chacun des noeuds de notre arbre, dans l'ordre préfixe.
+	 * Chaque forêt n'ajoute que deux maillons à celle de son parent : l'ensemble est construit en temps et en mémoire linéaires.
+	 * @return Les forêts, la i-ème correspondant au i-ème noeud de <code>prefixe()</code>.
+	 * @see model.tree.PersistentTree#prefixe()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public Forest[] moves() {
+		Forest[] result = new Forest[this.size];
+		PersistentTree[] stack = new PersistentTree[16];
+		Forest[] rests = new Forest[16];
+		int top = 0;
+		stack[top] = this;
+		rests[top++] = null;
+		int count = 0;
+		while (top > 0) {
+			PersistentTree t = stack[--top];
+			Forest rest = rests[top];
+			stack[top] = null;
+			rests[top] = null;
+			result[count++] = new Forest(t, Forest.NONE, rest);
+			if (top + t.children.length > stack.length) {
+				int capacity = Math.max(stack.length * 2, top + t.children.length);
+				stack = Arrays.copyOf(stack, capacity);
+				rests = Arrays.copyOf(rests, capacity);
+			}
+			for (int i = t.children.length - 1; i >= 0; i--) {
+				stack[top] = t.children[i];
+				rests[top++] = new Forest(t, i, rest);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Deux <code>PersistentTree</code> sont égaux s'ils ont la même empreinte canonique et la même taille.
+	 * @param o Objet comparé à notre arbre.
+	 * @return true si <code>o</code> est un <code>PersistentTree</code> isomorphe à notre arbre.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof PersistentTree)) {
+			return false;
+		}
+		PersistentTree t = (PersistentTree) o;
+		return this.hash == t.hash && this.size == t.size;
+	}
+
+	/**
+	 * Retourne le code de hachage de l'arbre, cohérent avec <code>equals(Object)</code>.
+	 * @return Les bits de poids faible de l'empreinte canonique.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int hashCode() {
+		return (int) (this.hash ^ (this.hash >>> 32));
+	}
+
+	/**
+	 * Retourne une représentation textuelle de l'arbre, au format de <code>Node#innerTree()</code>.
+	 * @return Une représentation textuelle de l'arbre.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		PersistentTree[] stack = new PersistentTree[16];
+		int[] next = new int[16];
+		int top = 0;
+		str.append(this.label).append('(');
+		stack[top] = this;
+		next[top++] = 0;
+		while (top > 0) {
+			PersistentTree t = stack[top - 1];
+			if (next[top - 1] < t.children.length) {
+				PersistentTree child = t.children[next[top - 1]++];
+				str.append(child.label).append('(');
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+					next = Arrays.copyOf(next, top * 2);
+				}
+				stack[top] = child;
+				next[top++] = 0;
+			} else {
+				str.append(')');
+				top--;
+			}
+		}
+		return str.toString();
+	}
+
+	/**
+	 * Classe <code>Forest</code> représentant, de manière immuable, la forêt restant après avoir joué un noeud d'un <code>PersistentTree</code>.
+	 * Une forêt est une liste chaînée de maillons : chaque maillon désigne les fils d'un noeud supprimé, hormis éventuellement
+	 * celui se trouvant sur le chemin du coup, et la suite de la liste est partagée avec les forêts des noeuds voisins.
+	 * L'empreinte canonique, le nombre de noeuds et le nombre d'arbres de la forêt sont calculés à la construction du maillon, en temps constant.
+	 * @author Grégoire
+	 * @date 10 fév. 2016
+	 * @see model.tree.PersistentTree#play(int...)
+	 * @see model.tree.PersistentTree#moves()
+	 * @version 1.0
+	 */
+	public static final class Forest {
+
+		/**
+		 * Rang indiquant qu'aucun fils n'est retiré du maillon.
+		 */
+		static final int NONE = -1;
+
+		/**
+		 * Noeud supprimé dont les fils forment le maillon.
+		 */
+		private final PersistentTree deleted;
+
+		/**
+		 * Rang du fils de <code>deleted</code> se trouvant sur le chemin du coup, <code>NONE</code> pour le noeud joué.
+		 */
+		private final int skip;
+
+		/**
+		 * Suite de la forêt, <code>null</code> s'il s'agit du dernier maillon.
+		 */
+		private final Forest tail;
+
+		/**
+		 * Somme des contributions des arbres de la forêt, au sens de <code>TreeHash#child(long)</code>.
+		 */
+		private final long childSum;
+
+		/**
+		 * Nombre de noeuds de la forêt.
+		 */
+		private final int size;
+
+		/**
+		 * Nombre d'arbres de la forêt.
+		 */
+		private final int treeCount;
+
+		/**
+		 * Constructeur d'un maillon.
+		 * @param deleted Noeud supprimé dont les fils forment le maillon.
+		 * @param skip Rang du fils à exclure, <code>NONE</code> pour n'en exclure aucun.
+		 * @param tail Suite de la forêt, <code>null</code> pour aucune.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		Forest(PersistentTree deleted, int skip, Forest tail) {
+			long sum = deleted.childSum;
+			int size = deleted.size - 1;
+			int treeCount = deleted.children.length;
+			if (skip != NONE) {
+				PersistentTree excluded = deleted.children[skip];
+				sum -= TreeHash.child(excluded.hash);
+				size -= excluded.size;
+				treeCount--;
+			}
+			if (tail != null) {
+				sum += tail.childSum;
+				size += tail.size;
+				treeCount += tail.treeCount;
+			}
+			this.deleted = deleted;
+			this.skip = skip;
+			this.tail = tail;
+			this.childSum = sum;
+			this.size = size;
+			this.treeCount = treeCount;
+		}
+
+		/**
+		 * Retourne l'empreinte canonique de la forêt, rattachée à une racine "fantôme".
+		 * @return L'empreinte, égale à celle de <code>CompactTree#delete(int)</code> pour le même coup.
+		 * @see model.tree.CompactTree#getMoveHashes()
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public long getHash() {
+			return TreeHash.node(this.childSum);
+		}
+
+		/**
+		 * Retourne le nombre de noeuds de la forêt.
+		 * @return Le nombre de noeuds, racine "fantôme" non comprise.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public int getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Retourne le nombre d'arbres de la forêt.
+		 * @return Le nombre d'arbres, 0 pour la forêt vide.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public int getTreeCount() {
+			return this.treeCount;
+		}
+
+		/**
+		 * Indique si la forêt est vide, c'est-à-dire si le coup a supprimé tous les noeuds.
+		 * @return true si la forêt ne contient aucun arbre.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public boolean isEmpty() {
+			return this.treeCount == 0;
+		}
+
+		/**
+		 * Retourne les arbres de la forêt, partagés avec l'arbre joué, dans l'ordre suivant :
+		 * les fils du noeud joué, puis ceux de chacun de ses ancêtres.
+		 * @return Une nouvelle <code>List<PersistentTree></code> contenant les arbres.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public List<PersistentTree> getTrees() {
+			List<PersistentTree> trees = new ArrayList<PersistentTree>(this.treeCount);
+			for (Forest f = this; f != null; f = f.tail) {
+				for (int i = 0; i < f.deleted.children.length; i++) {
+					if (i != f.skip) {
+						trees.add(f.deleted.children[i]);
+					}
+				}
+			}
+			return trees;
+		}
+
+		/**
+		 * Retourne les empreintes canoniques des arbres de la forêt, dans l'ordre de <code>getTrees()</code>.
+		 * @return Les empreintes.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public long[] getTreeHashes() {
+			long[] hashes = new long[this.treeCount];
+			int count = 0;
+			for (Forest f = this; f != null; f = f.tail) {
+				for (int i = 0; i < f.deleted.children.length; i++) {
+					if (i != f.skip) {
+						hashes[count++] = f.deleted.children[i].hash;
+					}
+				}
+			}
+			return hashes;
+		}
+	}
+}
@@ -0,0 +1,316 @@
+package model.tree;
+
+import java.util.SplittableRandom;
+
+/**
+ * Classe <code>RandomTreeGenerator</code> permettant de générer des <code>CompactTree</code> aléatoires de grande taille, de manière reproductible.
+ * Contrairement à <code>RandomGenerateTree</code>, la profondeur et le nombre de fils ne sont pas bornés :
+ * on choisit le nombre de noeuds et la forme de l'arbre, et la génération se fait en O(n) à partir d'une graine.
+ * Les <code>labels</code> sont les entiers de 1 à n, la racine ayant le <code>label</code> 1.
+ * @author Grégoire
+ * @date 6 fév. 2016
+ * @see model.tree.RandomGenerateTree
+ * @see model.tree.CompactTree#toTree()
+ * @version 1.0
+ */
+public class RandomTreeGenerator {
+
+	/**
+	 * Forme des arbres générés.
+	 * @author Grégoire
+	 * @date 6 fév. 2016
+	 * @version 1.0
+	 */
+	public enum Shape {
+
+		/**
+		 * Arbre tiré uniformément parmi les arbres étiquetés à n noeuds (décodage d'une suite de Prüfer), enraciné en son premier noeud.
+		 */
+		UNIFORM,
+
+		/**
+		 * Processus de Galton-Watson : chaque noeud, pris en largeur, a un nombre de fils suivant une loi de Poisson.
+		 * Si la lignée s'éteint avant d'avoir atteint n noeuds, un nouveau fils est greffé sur un noeud choisi au hasard.
+		 */
+		GALTON_WATSON,
+
+		/**
+		 * Chenille : un chemin de longueur aléatoire, les autres noeuds étant des feuilles rattachées à un noeud du chemin choisi au hasard.
+		 */
+		CATERPILLAR,
+
+		/**
+		 * Chemin de n noeuds, de profondeur n - 1.
+		 */
+		PATH
+	}
+
+	/**
+	 * Nombre moyen de fils par défaut pour <code>Shape.GALTON_WATSON</code>.
+	 */
+	public static final double DEFAULT_MEAN_CHILDREN = 1.0;
+
+	/**
+	 * Générateur pseudo-aléatoire.
+	 */
+	private final SplittableRandom random;
+
+	/**
+	 * Nombre moyen de fils d'un noeud pour <code>Shape.GALTON_WATSON</code>.
+	 */
+	private double meanChildren;
+
+	/**
+	 * Constructeur de la classe <code>RandomTreeGenerator</code>.
+	 * Deux générateurs créés avec la même graine produisent les mêmes arbres.
+	 * @param seed Graine du générateur.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public RandomTreeGenerator(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Constructeur de la classe <code>RandomTreeGenerator</code> à partir d'un générateur existant.
+	 * @param random Générateur pseudo-aléatoire utilisé.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public RandomTreeGenerator(SplittableRandom random) {
+		this.random = random;
+		this.meanChildren = DEFAULT_MEAN_CHILDREN;
+	}
+
+	/**
+	 * Retourne un nouveau générateur indépendant de celui-ci, destiné par exemple à un autre thread.
+	 * Le résultat reste reproductible : il ne dépend que de la graine et du nombre d'appels précédents.
+	 * @return Un nouveau <code>RandomTreeGenerator</code>.
+	 * @see java.util.SplittableRandom#split()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public RandomTreeGenerator split() {
+		RandomTreeGenerator other = new RandomTreeGenerator(this.random.split());
+		other.setMeanChildren(this.meanChildren);
+		return other;
+	}
+
+	/**
+	 * Retourne le nombre moyen de fils d'un noeud pour <code>Shape.GALTON_WATSON</code>.
+	 * @return Le nombre moyen de fils.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public double getMeanChildren() {
+		return this.meanChildren;
+	}
+
+	/**
+	 * Modifie le nombre moyen de fils d'un noeud pour <code>Shape.GALTON_WATSON</code>.
+	 * En dessous de 1 les arbres sont profonds et peu ramifiés, au-dessus ils sont larges et peu profonds.
+	 * @param meanChildren Nombre moyen de fils, strictement positif et au plus 64.
+	 * @throws IllegalArgumentException Si le nombre moyen est hors de ces bornes.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public void setMeanChildren(double meanChildren) {
+		if (!(meanChildren > 0 && meanChildren <= 64)) {
+			throw new IllegalArgumentException("Nombre moyen de fils hors de ]0, 64] : " + meanChildren);
+		}
+		this.meanChildren = meanChildren;
+	}
+
+	/**
+	 * Génère un arbre aléatoire.
+	 * @param size Nombre de noeuds, au moins 1.
+	 * @param shape Forme de l'arbre.
+	 * @return L'arbre généré, dont les indices vérifient <code>parent[i] < i</code>.
+	 * @throws IllegalArgumentException Si <code>size</code> est inférieur à 1.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public CompactTree generate(int size, Shape shape) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Un arbre possède au moins un noeud : " + size);
+		}
+		int[] parent;
+		switch (shape) {
+		case UNIFORM:
+			parent = this.uniform(size);
+			break;
+		case GALTON_WATSON:
+			parent = this.galtonWatson(size);
+			break;
+		case CATERPILLAR:
+			parent = this.caterpillar(size);
+			break;
+		default:
+			parent = RandomTreeGenerator.path(size);
+			break;
+		}
+		int[] label = new int[size];
+		for (int i = 0; i < size; i++) {
+			label[i] = i + 1;
+		}
+		return new CompactTree(parent, label);
+	}
+
+	/**
+	 * Génère un arbre uniforme en décodant une suite de Prüfer aléatoire en temps linéaire,
+	 * puis en renumérotant les noeuds en largeur à partir du noeud 0.
+	 * @param size Nombre de noeuds.
+	 * @return Le tableau des parents.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private int[] uniform(int size) {
+		int[] parent = new int[size];
+		parent[0] = CompactTree.NONE;
+		if (size < 3) {
+			if (size == 2) {
+				parent[1] = 0;
+			}
+			return parent;
+		}
+		int[] code = new int[size - 2];
+		int[] degree = new int[size];
+		for (int i = 0; i < code.length; i++) {
+			code[i] = this.random.nextInt(size);
+			degree[code[i]]++;
+		}
+		// Décodage : chaque arête relie la plus petite feuille restante à l'élément suivant de la suite.
+		int[] edgeA = new int[size - 1];
+		int[] edgeB = new int[size - 1];
+		int pointer = 0;
+		while (degree[pointer] != 0) {
+			pointer++;
+		}
+		int leaf = pointer;
+		for (int i = 0; i < code.length; i++) {
+			int v = code[i];
+			edgeA[i] = leaf;
+			edgeB[i] = v;
+			if (--degree[v] == 0 && v < pointer) {
+				leaf = v;
+			} else {
+				pointer++;
+				while (degree[pointer] != 0) {
+					pointer++;
+				}
+				leaf = pointer;
+			}
+		}
+		edgeA[size - 2] = leaf;
+		edgeB[size - 2] = size - 1;
+		// Listes d'adjacence compactes puis parcours en largeur depuis le noeud 0.
+		int[] start = new int[size + 1];
+		for (int i = 0; i < size - 1; i++) {
+			start[edgeA[i] + 1]++;
+			start[edgeB[i] + 1]++;
+		}
+		for (int i = 0; i < size; i++) {
+			start[i + 1] += start[i];
+		}
+		int[] fill = start.clone();
+		int[] adjacent = new int[2 * (size - 1)];
+		for (int i = 0; i < size - 1; i++) {
+			adjacent[fill[edgeA[i]]++] = edgeB[i];
+			adjacent[fill[edgeB[i]]++] = edgeA[i];
+		}
+		boolean[] visited = new boolean[size];
+		int[] queue = new int[size];
+		queue[0] = 0;
+		visited[0] = true;
+		int tail = 1;
+		for (int head = 0; head < tail; head++) {
+			int v = queue[head];
+			for (int e = start[v]; e < start[v + 1]; e++) {
+				int w = adjacent[e];
+				if (!visited[w]) {
+					visited[w] = true;
+					parent[tail] = head;
+					queue[tail++] = w;
+				}
+			}
+		}
+		return parent;
+	}
+
+	/**
+	 * Génère un arbre de Galton-Watson en largeur, le nombre de fils de chaque noeud suivant une loi de Poisson
+	 * de paramètre <code>meanChildren</code>. La génération s'arrête dès que l'arbre atteint <code>size</code> noeuds.
+	 * @param size Nombre de noeuds.
+	 * @return Le tableau des parents.
+	 * @see model.tree.RandomTreeGenerator#poisson()
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private int[] galtonWatson(int size) {
+		int[] parent = new int[size];
+		parent[0] = CompactTree.NONE;
+		int count = 1;
+		for (int next = 0; count < size; next++) {
+			if (next == count) {
+				// La lignée s'est éteinte : on greffe un fils sur un noeud existant pour la relancer.
+				parent[count] = this.random.nextInt(count);
+				count++;
+				continue;
+			}
+			for (int children = this.poisson(); children > 0 && count < size; children--) {
+				parent[count++] = next;
+			}
+		}
+		return parent;
+	}
+
+	/**
+	 * Génère une chenille : les noeuds 0 à k - 1 forment un chemin, k étant tiré uniformément entre 1 et <code>size</code>,
+	 * les autres noeuds sont des feuilles rattachées à un noeud du chemin.
+	 * @param size Nombre de noeuds.
+	 * @return Le tableau des parents.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private int[] caterpillar(int size) {
+		int[] parent = RandomTreeGenerator.path(size);
+		int spine = 1 + this.random.nextInt(size);
+		for (int i = spine; i < size; i++) {
+			parent[i] = this.random.nextInt(spine);
+		}
+		return parent;
+	}
+
+	/**
+	 * Génère un chemin.
+	 * @param size Nombre de noeuds.
+	 * @return Le tableau des parents.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static int[] path(int size) {
+		int[] parent = new int[size];
+		for (int i = 0; i < size; i++) {
+			parent[i] = i - 1;
+		}
+		return parent;
+	}
+
+	/**
+	 * Tire un entier suivant une loi de Poisson de paramètre <code>meanChildren</code>, par la méthode de Knuth.
+	 * Le coût est proportionnel à <code>meanChildren</code>, qui reste petit.
+	 * @return Le nombre tiré.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private int poisson() {
+		double limit = Math.exp(-this.meanChildren);
+		double product = this.random.nextDouble();
+		int k = 0;
+		while (product > limit) {
+			product *= this.random.nextDouble();
+			k++;
+		}
+		return k;
+	}
+}
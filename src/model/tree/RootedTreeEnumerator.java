@@ -0,0 +1,396 @@
+package model.tree;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Classe <code>RootedTreeEnumerator</code> énumérant tous les arbres enracinés non isomorphes ayant un nombre de noeuds donné.
+ * Chaque arbre est représenté par sa suite de niveaux canonique : la profondeur de chaque noeud dans un parcours préfixe
+ * où les fils sont rangés par suite de niveaux décroissante. Les suites sont produites dans l'ordre lexicographique décroissant,
+ * en partant du chemin (0, 1, ..., n-1) jusqu'à l'étoile (0, 1, 1, ..., 1), suivant l'algorithme de Beyer et Hedetniemi :
+ * le passage d'un arbre au suivant se fait en temps constant amorti.
+ *
+ * V 1.2 :
+ * <ul>
+ * 	<li>Le <code>Spliterator</code> étant ordonné, sa séparation retourne les premiers arbres et garde les suivants,
+ * 	de sorte qu'un <code>Stream</code> parallèle respecte l'ordre de l'énumération.</li>
+ * </ul>
+ *
+ * V 1.1 :
+ * <ul>
+ * 	<li>Le dernier noeud modifiable et le parent de chaque noeud sont tenus à jour, au lieu d'être recherchés à chaque arbre.</li>
+ * 	<li>Ajout d'un <code>Spliterator</code> et de <code>Stream</code> de suites de niveaux, de <code>Barcode</code> et de <code>CompactTree</code>
+ * 	pouvant être parcourus en parallèle.</li>
+ * </ul>
+ * @author Grégoire
+ * @date 5 fév. 2016
+ * @see model.tree.CompactTree#fromLevelSequence(int[])
+ * @version 1.2
+ */
+public class RootedTreeEnumerator implements Iterator<int[]> {
+
+	/**
+	 * Suite de niveaux de l'arbre courant.
+	 */
+	private final int[] levels;
+
+	/**
+	 * Parent de chaque noeud de l'arbre courant, <code>CompactTree.NONE</code> pour la racine.
+	 */
+	private final int[] parent;
+
+	/**
+	 * Dernier noeud de niveau supérieur à 1, c'est-à-dire le noeud modifié pour passer à l'arbre suivant, 0 s'il n'y en a pas.
+	 */
+	private int last;
+
+	/**
+	 * Nombre de niveaux fixés : seuls les arbres commençant par <code>levels[0 .. fixed - 1]</code> sont énumérés.
+	 */
+	private int fixed;
+
+	/**
+	 * Indique si l'arbre courant n'a pas encore été retourné.
+	 */
+	private boolean ready;
+
+	/**
+	 * Indique si tous les arbres ont été retournés.
+	 */
+	private boolean done;
+
+	/**
+	 * Constructeur de la classe <code>RootedTreeEnumerator</code> énumérant les arbres à <code>size</code> noeuds.
+	 * @param size Nombre de noeuds des arbres, au moins 1.
+	 * @throws IllegalArgumentException Si <code>size</code> est inférieur à 1.
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	public RootedTreeEnumerator(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Un arbre possède au moins un noeud : " + size);
+		}
+		this.levels = new int[size];
+		this.parent = new int[size];
+		for (int i = 0; i < size; i++) {
+			this.levels[i] = i;
+			this.parent[i] = i - 1;
+		}
+		this.last = size > 2 ? size - 1 : 0;
+		this.fixed = 0;
+		this.ready = true;
+		this.done = false;
+	}
+
+	/**
+	 * Constructeur interne reprenant l'énumération à partir d'un arbre donné.
+	 * @param levels Suite de niveaux du prochain arbre à retourner.
+	 * @param parent Parent de chaque noeud de cet arbre.
+	 * @param last Dernier noeud de niveau supérieur à 1.
+	 * @param fixed Nombre de niveaux fixés.
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	private RootedTreeEnumerator(int[] levels, int[] parent, int last, int fixed) {
+		this.levels = levels;
+		this.parent = parent;
+		this.last = last;
+		this.fixed = fixed;
+		this.ready = true;
+		this.done = false;
+	}
+
+	/**
+	 * Indique s'il reste des arbres à énumérer.
+	 * @return True s'il reste au moins un arbre.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public boolean hasNext() {
+		if (!this.ready && !this.done) {
+			this.advance();
+		}
+		return this.ready;
+	}
+
+	/**
+	 * Retourne la suite de niveaux de l'arbre suivant.
+	 * Le tableau retourné est celui de l'énumérateur : il ne doit pas être modifié et n'est valable que jusqu'à l'appel suivant.
+	 * @return La suite de niveaux de l'arbre suivant.
+	 * @throws NoSuchElementException S'il ne reste plus d'arbre.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public int[] next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		this.ready = false;
+		return this.levels;
+	}
+
+	/**
+	 * L'énumération ne permet pas de supprimer d'arbre.
+	 * @throws UnsupportedOperationException Toujours.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Passe à la suite de niveaux suivante, en modifiant le dernier noeud de niveau supérieur à 1.
+	 * L'énumération s'arrête lorsqu'il n'y en a plus (on a atteint l'étoile) ou lorsqu'il fait partie des niveaux fixés.
+	 * @see model.tree.RootedTreeEnumerator#fill(int)
+	 * @since 1.0
+	 * @version 1.1
+	 */
+	private void advance() {
+		if (this.last == 0 || this.last < this.fixed) {
+			this.done = true;
+			return;
+		}
+		this.fill(this.last);
+		this.ready = true;
+	}
+
+	/**
+	 * Remplace le noeud <code>p</code> par le plus grand arbre possible dont la suite de niveaux est plus petite à partir de <code>p</code> :
+	 * si <code>q</code> est le parent de <code>p</code>, la partie commençant en <code>q</code> est recopiée périodiquement à partir de <code>p</code>.
+	 * Les parents et le dernier noeud de niveau supérieur à 1 sont mis à jour pendant la recopie.
+	 * @param p Indice du noeud modifié, de niveau supérieur à 1.
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	private void fill(int p) {
+		int q = this.parent[p];
+		int d = p - q;
+		int top = this.levels[q];
+		int newLast = 0;
+		for (int i = p; i < this.levels.length; i++) {
+			int level = this.levels[i - d];
+			this.levels[i] = level;
+			this.parent[i] = level == top ? this.parent[q] : this.parent[i - d] + d;
+			if (level > 1) {
+				newLast = i;
+			}
+		}
+		if (newLast == 0) {
+			newLast = p - 1;
+			while (newLast > 0 && this.levels[newLast] == 1) {
+				newLast--;
+			}
+		}
+		this.last = newLast;
+	}
+
+	/**
+	 * Sépare les arbres restant à énumérer en deux parties contiguës.
+	 * On cherche le premier niveau non fixé <code>j</code> pouvant être diminué : l'énumérateur courant garde les arbres commençant
+	 * par <code>levels[0 .. j]</code>, le nouvel énumérateur reçoit ceux dont le niveau en <code>j</code> est plus petit,
+	 * en commençant par le plus grand d'entre eux.
+	 * @return L'énumérateur des arbres séparés, ou <code>null</code> s'il n'est pas possible de séparer.
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	private RootedTreeEnumerator split() {
+		if (!this.hasNext()) {
+			return null;
+		}
+		int j = Math.max(this.fixed, 2);
+		while (j <= this.last && this.levels[j] <= 1) {
+			j++;
+		}
+		if (j > this.last || this.last == 0) {
+			return null;
+		}
+		RootedTreeEnumerator other = new RootedTreeEnumerator(this.levels.clone(), this.parent.clone(), this.last, j);
+		other.fill(j);
+		this.fixed = j + 1;
+		return other;
+	}
+
+	/**
+	 * Retourne le nombre d'arbres enracinés non isomorphes à <code>size</code> noeuds (suite A000081).
+	 * @param size Nombre de noeuds.
+	 * @return Le nombre d'arbres, ou <code>Long.MAX_VALUE</code> s'il dépasse la capacité d'un <code>long</code>.
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	public static long count(int size) {
+		if (size < 1) {
+			return 0;
+		}
+		long[] a = new long[size + 1];
+		long[] s = new long[size + 1];
+		a[1] = 1;
+		try {
+			for (int n = 1; n < size; n++) {
+				for (int d = 1; d <= n; d++) {
+					if (n % d == 0) {
+						s[n] = Math.addExact(s[n], Math.multiplyExact(d, a[d]));
+					}
+				}
+				long sum = 0;
+				for (int k = 1; k <= n; k++) {
+					sum = Math.addExact(sum, Math.multiplyExact(s[k], a[n - k + 1]));
+				}
+				a[n + 1] = sum / n;
+			}
+		} catch (ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+		return a[size];
+	}
+
+	/**
+	 * Retourne un <code>Spliterator</code> des suites de niveaux de tous les arbres à <code>size</code> noeuds.
+	 * Chaque suite est une copie pouvant être conservée.
+	 * @param size Nombre de noeuds des arbres, au moins 1.
+	 * @return Le <code>Spliterator</code> des suites de niveaux.
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	public static Spliterator<int[]> spliterator(int size) {
+		return new LevelSequenceSpliterator(new RootedTreeEnumerator(size), RootedTreeEnumerator.count(size));
+	}
+
+	/**
+	 * Retourne le <code>Stream</code> des suites de niveaux de tous les arbres à <code>size</code> noeuds.
+	 * @param size Nombre de noeuds des arbres, au moins 1.
+	 * @param parallel Indique si le <code>Stream</code> doit être parallèle.
+	 * @return Le <code>Stream</code> des suites de niveaux.
+	 * @see model.tree.RootedTreeEnumerator#spliterator(int)
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	public static Stream<int[]> levelSequences(int size, boolean parallel) {
+		return StreamSupport.stream(RootedTreeEnumerator.spliterator(size), parallel);
+	}
+
+	/**
+	 * Retourne le <code>Stream</code> des <code>CompactTree</code> de tous les arbres à <code>size</code> noeuds.
+	 * @param size Nombre de noeuds des arbres, au moins 1.
+	 * @param parallel Indique si le <code>Stream</code> doit être parallèle.
+	 * @return Le <code>Stream</code> des arbres.
+	 * @see model.tree.CompactTree#fromLevelSequence(int[])
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	public static Stream<CompactTree> compactTrees(int size, boolean parallel) {
+		return RootedTreeEnumerator.levelSequences(size, parallel).map(new Function<int[], CompactTree>() {
+			public CompactTree apply(int[] levels) {
+				return CompactTree.fromLevelSequence(levels);
+			}
+		});
+	}
+
+	/**
+	 * Retourne le <code>Stream</code> des <code>Barcode</code> de tous les arbres à <code>size</code> noeuds.
+	 * @param size Nombre de noeuds des arbres, au moins 1.
+	 * @param parallel Indique si le <code>Stream</code> doit être parallèle.
+	 * @return Le <code>Stream</code> des "code-barre".
+	 * @see model.tree.CompactTree#getBarcode()
+	 * @since 1.1
+	 * @version 1.0
+	 */
+	public static Stream<Barcode> barcodes(int size, boolean parallel) {
+		return RootedTreeEnumerator.compactTrees(size, parallel).map(new Function<CompactTree, Barcode>() {
+			public Barcode apply(CompactTree tree) {
+				return tree.getBarcode();
+			}
+		});
+	}
+
+	/**
+	 * <code>Spliterator</code> des suites de niveaux, reposant sur un <code>RootedTreeEnumerator</code>.
+	 * La taille d'une partie n'étant pas connue après séparation, elle est estimée en divisant l'estimation par deux.
+	 * @author Grégoire
+	 * @date 7 fév. 2016
+	 * @see model.tree.RootedTreeEnumerator#split()
+	 * @version 1.1
+	 */
+	private static class LevelSequenceSpliterator implements Spliterator<int[]> {
+
+		/**
+		 * Énumérateur des arbres de cette partie, remplacé par celui des arbres suivants lors d'une séparation.
+		 */
+		private RootedTreeEnumerator trees;
+
+		/**
+		 * Estimation du nombre d'arbres de cette partie.
+		 */
+		private long estimate;
+
+		/**
+		 * Constructeur du <code>Spliterator</code>.
+		 * @param trees Énumérateur des arbres.
+		 * @param estimate Estimation du nombre d'arbres.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		LevelSequenceSpliterator(RootedTreeEnumerator trees, long estimate) {
+			this.trees = trees;
+			this.estimate = estimate;
+		}
+
+		/**
+		 * Fournit une copie de la suite de niveaux suivante à <code>action</code>.
+		 * @param action Action à effectuer sur la suite.
+		 * @return False s'il ne reste plus d'arbre.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public boolean tryAdvance(Consumer<? super int[]> action) {
+			if (!this.trees.hasNext()) {
+				return false;
+			}
+			action.accept(this.trees.next().clone());
+			return true;
+		}
+
+		/**
+		 * Sépare les arbres restants en deux parties.
+		 * Le <code>Spliterator</code> étant ordonné, la partie retournée est celle des premiers arbres, <code>this</code> gardant les suivants.
+		 * @return Le <code>Spliterator</code> des premiers arbres, ou <code>null</code>.
+		 * @since 1.0
+		 * @version 1.1
+		 */
+		public Spliterator<int[]> trySplit() {
+			RootedTreeEnumerator other = this.trees.split();
+			if (other == null) {
+				return null;
+			}
+			this.estimate = Math.max(1, this.estimate / 2);
+			LevelSequenceSpliterator prefix = new LevelSequenceSpliterator(this.trees, this.estimate);
+			this.trees = other;
+			return prefix;
+		}
+
+		/**
+		 * Retourne l'estimation du nombre d'arbres restants.
+		 * @return L'estimation.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public long estimateSize() {
+			return this.estimate;
+		}
+
+		/**
+		 * Les suites sont ordonnées, distinctes et jamais <code>null</code>.
+		 * @return Les caractéristiques du <code>Spliterator</code>.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+		}
+	}
+}
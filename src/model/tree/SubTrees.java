@@ -6,9 +6,30 @@ import java.util.List;
 /**
  * Classe <code>SubTrees</code> représentant la liste des sous-arbre sous forme de <code>Barcode</code>
  * ainsi qu'un<code>Boolean</code> indiquant si un coup est gagnant dans la liste de sous-arbre ou non.
+ * 
+ * V 1.4 : 
+ * <ul>
+ * 	<li>Ajout du nombre de Grundy de l'arbre, plus riche que <code>losingHit</code> : il permet de combiner l'arbre avec d'autres dans une somme.</li>
+ * </ul>
+ * 
+ * V 1.3 : 
+ * <ul>
+ * 	<li>Les coups peuvent être représentés par les <code>PersistentTree.Forest</code> obtenues, partageant les sous-arbres de l'arbre joué :
+ * 	les empreintes ne sont alors calculées qu'à la demande.</li>
+ * </ul>
+ * 
+ * V 1.2 : 
+ * <ul>
+ * 	<li>Les empreintes sont regroupées par coup : un coup donne une forêt, représentée par l'empreinte de chacun de ses arbres.</li>
+ * </ul>
+ * 
+ * V 1.1 : 
+ * <ul>
+ * 	<li>Les sous-arbres peuvent aussi être représentés par leur empreinte canonique, sans construire leur <code>Barcode</code>.</li>
+ * </ul>
  * @author Grégoire
  * @date 11 déc. 2015
- * @version 1.0
+ * @version 1.4
  */
 public class SubTrees {
 	
@@ -22,6 +43,21 @@ public class SubTrees {
 	 */
 	private Boolean losingHit;
 	
+	/**
+	 * Nombre de Grundy de l'arbre, <code>null</code> s'il n'est pas encore connu.
+	 */
+	private Integer grundy;
+	
+	/**
+	 * Empreintes canoniques des sous-arbres : pour chaque coup, les empreintes des arbres de la forêt obtenue.
+	 */
+	private long[][] hashes;
+	
+	/**
+	 * Forêts obtenues en jouant chaque coup, <code>null</code> si les coups ne sont connus que par leurs empreintes.
+	 */
+	private PersistentTree.Forest[] moves;
+	
 	/**
 	 * Constructeur de <code>SubTree</code> représentant la <code>List<Barcode></code> ainsi que la potentialité 
 	 * de coup gagnant ou non. 
@@ -37,6 +73,32 @@ public class SubTrees {
 		this.setLosingHit(h);
 	}
 
+	/**
+	 * Constructeur de <code>SubTree</code> représentant les sous-arbres par leur empreinte canonique.
+	 * @param hashes Pour chaque coup, empreintes canoniques des arbres de la forêt obtenue.
+	 * @param h Représente le <code>Boolean</code> indiquant si le sous arbre est gagnant, perdant ou inconnu.
+	 * @see model.tree.Barcode#getCanonicalHash()
+	 * @since 1.1
+	 * @version 1.1
+	 */
+	public SubTrees(long[][] hashes, Boolean h) {
+		this.setHashes(hashes);
+		this.setLosingHit(h);
+	}
+
+	/**
+	 * Constructeur de <code>SubTree</code> représentant chaque coup par la forêt obtenue, sans en copier les arbres.
+	 * @param moves Pour chaque coup, la forêt obtenue.
+	 * @param h Représente le <code>Boolean</code> indiquant si le sous arbre est gagnant, perdant ou inconnu.
+	 * @see model.tree.PersistentTree#moves()
+	 * @since 1.3
+	 * @version 1.3
+	 */
+	public SubTrees(PersistentTree.Forest[] moves, Boolean h) {
+		this.moves = moves;
+		this.setLosingHit(h);
+	}
+
 	/**
 	 * Retourne un <code>Boolean</code> indiquant si l'on gagne, perd ou si on ne sait pas pour le sous-arbre donnée.
 	 * @return True / False / Null suivant si on a un coup gagnant, perdant ou inconnu.
@@ -57,14 +119,37 @@ public class SubTrees {
 		this.losingHit = hasWinningHit;
 	}
 
+	/**
+	 * Retourne le nombre de Grundy de l'arbre : l'arbre est perdant pour le joueur qui doit jouer si et seulement s'il est nul.
+	 * @return Le nombre de Grundy, <code>null</code> s'il n'est pas encore connu.
+	 * @since 1.4
+	 * @version 1.4
+	 */
+	public Integer getGrundy() {
+		return this.grundy;
+	}
+
+	/**
+	 * Modificateur du nombre de Grundy de l'arbre.
+	 * @param grundy Nouveau nombre de Grundy, <code>null</code> s'il n'est pas connu.
+	 * @since 1.4
+	 * @version 1.4
+	 */
+	public void setGrundy(Integer grundy) {
+		this.grundy = grundy;
+	}
+
 	/**
 	 * Retourne une copie de la Liste des potentielles coups gagnant.
-	 * @return Une copie des "coups gagnant".
+	 * @return Une copie des "coups gagnant", <code>null</code> si les sous-arbres ne sont connus que par leur empreinte.
 	 * @see model.tree.Barcode
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public List<Barcode> getBc() {
+		if (this.bc == null) {
+			return null;
+		}
 		List<Barcode> l = new ArrayList<Barcode>();
 		for (Barcode b : this.bc) {
 			l.add(b);
@@ -81,4 +166,43 @@ public class SubTrees {
 	public void setBc(List<Barcode> bc) {
 		this.bc = bc;
 	}
+
+	/**
+	 * Retourne les empreintes canoniques des sous-arbres, regroupées par coup.
+	 * Si les coups sont représentés par des forêts, les empreintes sont calculées au premier appel.
+	 * @return Les empreintes, <code>null</code> si les sous-arbres ne sont connus que par leur <code>Barcode</code>.
+	 * @see model.tree.PersistentTree.Forest#getTreeHashes()
+	 * @since 1.1
+	 * @version 1.3
+	 */
+	public long[][] getHashes() {
+		if (this.hashes == null && this.moves != null) {
+			long[][] hashes = new long[this.moves.length][];
+			for (int i = 0; i < this.moves.length; i++) {
+				hashes[i] = this.moves[i].getTreeHashes();
+			}
+			this.hashes = hashes;
+		}
+		return this.hashes;
+	}
+
+	/**
+	 * Retourne les forêts obtenues en jouant chaque coup.
+	 * @return Les forêts, <code>null</code> si les coups ne sont connus que par leurs empreintes ou leur <code>Barcode</code>.
+	 * @since 1.3
+	 * @version 1.3
+	 */
+	public PersistentTree.Forest[] getMoves() {
+		return this.moves;
+	}
+
+	/**
+	 * Modificateur de <code>hashes</code> représentant les empreintes canoniques des sous-arbres.
+	 * @param hashes Nouvelles empreintes, regroupées par coup.
+	 * @since 1.1
+	 * @version 1.1
+	 */
+	public void setHashes(long[][] hashes) {
+		this.hashes = hashes;
+	}
 }
@@ -1,8 +1,13 @@
 package model.tree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 import javax.swing.event.TreeModelListener;
 import javax.swing.tree.TreeModel;
@@ -10,6 +15,53 @@ import javax.swing.tree.TreePath;
 
 /**
  * Classe <code>Tree</code> permettant de générer des arbres. 
+ * V1.12 :
+ * <ul>
+ * 	<li>L'index attribue à chaque <code>Node</code> un <code>id</code> dense, son rang dans l'ordre préfixe, et le range dans un tableau :
+ * 	<code>getNode(int)</code> est un accès direct. L'index est invalidé par <code>delete(Node)</code> et par toute modification
+ * 	des successeurs d'un de ses <code>Node</code>, plutôt que reconstruit à la main.</li>
+ * </ul>
+ * 
+ * V1.11 :
+ * <ul>
+ * 	<li>L'index des <code>Node</code> est indexé par <code>label</code> et non plus par <code>id</code>, qui n'est pas unique :
+ * 	"07" et "7" ont le même <code>id</code> mais sont deux <code>Node</code> distincts.</li>
+ * </ul>
+ * 
+ * V1.10 :
+ * <ul>
+ * 	<li>Ajout de la méthode <code>getCorePartition()</code> calculant en un seul parcours suffixe le noyau et son complémentaire,
+ * 	sur laquelle reposent désormais <code>searchCore()</code> et <code>searchComplementCore()</code>.</li>
+ * </ul>
+ * 
+ * V1.9 :
+ * <ul>
+ * 	<li>La méthode <code>clone()</code> est linéaire.</li>
+ * </ul>
+ * 
+ * V1.8 :
+ * <ul>
+ * 	<li>Ajout d'un index des <code>Node</code> par <code>id</code> et des méthodes <code>getNode(int)</code>, <code>getNode(String)</code> et <code>indexNodes()</code>.</li>
+ * 	<li><code>searchCore()</code> et <code>searchComplementCore()</code> testent l'appartenance au noyau dans un <code>HashSet</code> et sont désormais linéaires.</li>
+ * </ul>
+ * 
+ * V1.7 :
+ * <ul>
+ * 	<li><code>largeCourse</code> et <code>clearCourse</code> ne sont plus récursives et supportent des arbres de très grande profondeur.</li>
+ * </ul>
+ * 
+ * V1.6 :
+ * <ul>
+ * 	<li>Ajout de la méthode <code>linkParents()</code> renseignant le parent de chaque <code>Node</code>.</li>
+ * 	<li><code>getToDelete(Node)</code> remonte désormais simplement le chemin jusqu'à la racine.</li>
+ * </ul>
+ * 
+ * V1.5 :
+ * <ul>
+ * 	<li>Les parcours préfixe et suffixe utilisent une pile explicite et sont désormais linéaires.</li>
+ * 	<li>Ajout des parcours via <code>NodeVisitor</code> ou <code>Iterable</code> ne générant pas de liste.</li>
+ * </ul>
+ * 
  * V1.4 :
  * <ul>
  * 	<li>Ajout de la méthode <code>clearCourse</code> permettant de redéfinir correctement les profondeurs des <code>Nodes</code> d'un arbre après suppression.</li>
@@ -38,7 +90,7 @@ import javax.swing.tree.TreePath;
  * 		
  * @author Florian, Grégoire, Nicolas
  * @date 15 nov. 2015
- * @version 1.3
+ * @version 1.12
  */
 public class Tree implements TreeModel, Comparable<Tree>, Cloneable {
 	
@@ -47,6 +99,16 @@ public class Tree implements TreeModel, Comparable<Tree>, Cloneable {
 	 */
 	private Node root;
 	
+	/**
+	 * Index des <code>Node</code> de notre <code>Tree</code> par <code>id</code>, <code>null</code> s'il doit être reconstruit.
+	 */
+	private Node[] nodes;
+	
+	/**
+	 * Index des <code>Node</code> de notre <code>Tree</code> par <code>label</code>, construit en même temps que <code>nodes</code>.
+	 */
+	private Map<String, Node> labels;
+	
 	/**
 	 * Constructeur de la classe <code>Tree</code> prenant en paramètre 
 	 * un <code>Node</code> représentant la racine de notre <code>Tree</code> 
@@ -171,141 +233,333 @@ public class Tree implements TreeModel, Comparable<Tree>, Cloneable {
 	/**
 	 * Parcours en profondeur d'un arbre.
 	 * On passe la root de notre arbre, puis l'on descend en profondeur pour trouver ces enfants.
+	 * 
+	 * V 1.1 : 
+	 * <ul>
+	 * 	<li>Utilisation d'une pile explicite plutôt que d'insertions au milieu de la liste, le parcours est désormais linéaire.</li>
+	 * </ul>
 	 * @param root Racine de l'arbre n'ayant pas d'enfant.
 	 * @return un <code>Node</code> n'ayant pas d'enfant.
-	 * @see model.tree.Tree#getChild(Object, int)
-	 * @see model.tree.Tree#getChildCount(Object)
-	 * @see model.tree.Tree#isLeaf(Object)
+	 * @see model.tree.Tree#prefixeDepthOrder(Node)
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public List<Node> prefixeDepthCourse(Node root) {
 		List<Node> al = new ArrayList<Node>();
-		al.add(root);
-		if (this.isLeaf(root)) 
-			return al;
-		int i = 0;
-		while (i < al.size()) {
-			List<Node> tab = al.get(i).getSuccessors();
-			if (tab == null) {
-				i++;
-			} else {
-			al.addAll(i + 1, tab);
-			i++;
-			}
+		for (Node n : this.prefixeDepthOrder(root)) {
+			al.add(n);
 		}
 		return al;
 	}
 	
+	/**
+	 * Parcours en profondeur d'un arbre dans l'ordre préfixe, sans générer de liste.
+	 * @param root Racine de l'arbre.
+	 * @param visitor Traitement appliqué à chaque <code>Node</code> parcouru.
+	 * @see model.tree.Tree#prefixeDepthOrder(Node)
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public void prefixeDepthCourse(Node root, NodeVisitor visitor) {
+		for (Node n : this.prefixeDepthOrder(root)) {
+			visitor.visit(n);
+		}
+	}
+	
+	/**
+	 * Retourne un <code>Iterable</code> permettant de parcourir l'arbre dans l'ordre préfixe.
+	 * Le parcours n'alloue qu'une pile, réutilisée pour tout les <code>Node</code>.
+	 * @param root Racine de l'arbre.
+	 * @return Un <code>Iterable</code> sur les <code>Node</code> dans l'ordre préfixe.
+	 * @see model.tree.Tree.DepthIterator
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public Iterable<Node> prefixeDepthOrder(final Node root) {
+		return new Iterable<Node>() {
+			public Iterator<Node> iterator() {
+				return new DepthIterator(root, false);
+			}
+		};
+	}
 	
 	/**
 	 * Parcours en largeur d'un arbre.
 	 * On passe une liste de node ainsi que la profondeur que l'on souhaite atteindre,
 	 * afin de générer le parcours en largeur de notre <code>Tree</code>.
+	 * Les niveaux sont construits l'un après l'autre, sans récursivité.
 	 * @param nodearray Liste de <code>Node</code> servant représentant le <code>Tree</code> que l'on parcours.
 	 * @param depth Profondeur que l'on souhaite atteindre au maximum.
 	 * @return une <code>List<Node></code> composant le <code>Tree</code> générer.
-	 * @see model.tree.Node#getSuccessors()
+	 * @see model.tree.Node#getSuccessor(int)
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public List<Node> largeCourse(List<Node> nodearray, int depth) {
-		if (depth == 0) {
-			return nodearray;
-		} 
-		List<Node> al = new ArrayList<Node>();
-		for(Node n : nodearray) {
-			al.addAll(n.getSuccessors());
+		List<Node> level = nodearray;
+		for (int d = depth; d > 0; d--) {
+			List<Node> al = new ArrayList<Node>();
+			for (Node n : level) {
+				for (int i = 0; i < n.getSuccessorCount(); i++) {
+					al.add(n.getSuccessor(i));
+				}
+			}
+			level = al;
 		}
-		return largeCourse(al , depth - 1);
+		return level;
 	}
 	
 	/**
 	 * Redéfini la profondeur des Nodes après suppression.
+	 * Le parcours utilise une pile explicite de <code>Node</code> et supporte donc des arbres de très grande profondeur.
 	 * @param nodearray Liste des <code>Nodes</code> que l'on souhaite rendre "propre".
 	 * @param depth Profondeur que l'on redéfini au <code>Node</code>
 	 * @see model.tree.Node#setDepth(int)
-	 * @see model.tree.Node#getSuccessors()
+	 * @see model.tree.Node#getSuccessor(int)
 	 * @since 1.4
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public void clearCourse(List<Node> nodearray, int depth) {
-		if (nodearray.isEmpty()) {
-			return;
-		} 
-		for(Node n : nodearray) {
+		Node[] stack = new Node[Math.max(16, nodearray.size())];
+		int top = 0;
+		for (Node n : nodearray) {
 			n.setDepth(depth);
+			stack[top++] = n;
+		}
+		while (top > 0) {
+			Node n = stack[--top];
+			stack[top] = null;
 			n.setNimber(0);
-			clearCourse(n.getSuccessors() , depth + 1);
+			int successors = n.getSuccessorCount();
+			if (top + successors > stack.length) {
+				stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + successors));
+			}
+			for (int i = 0; i < successors; i++) {
+				Node child = n.getSuccessor(i);
+				child.setDepth(n.getDepth() + 1);
+				stack[top++] = child;
+			}
 		}
 	}
 		
 	
 	/**
 	 * Génère le tableau S, représentant l'ordre suffixe par parcours en profondeur de notre <code>Tree</code>.
+	 * 
+	 * V 1.1 : 
+	 * <ul>
+	 * 	<li>Utilisation d'une pile explicite plutôt que d'insertions au milieu de la liste, le parcours est désormais linéaire.</li>
+	 * </ul>
 	 * @param root Racine de l'arbre.
 	 * @return Une<code>List<Node></code> représentant l'ordre suffixe d'un arbre.
-	 * @see model.tree.Node#getSuccessors()
-	 * @see model.tree.Tree#isLeaf(Object)
+	 * @see model.tree.Tree#suffixeDepthOrder(Node)
 	 * @since 1.0
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public List<Node> suffixeDepthCourse(Node root) {
 		List<Node> al = new ArrayList<Node>();
-		List<Boolean> visited = new ArrayList<Boolean>();
-		al.add(root);
-		visited.add(false);
-		if (this.isLeaf(root)) 
-			return al;
-		int i = 0;
-		while (i < al.size()) {
-			List<Node> tab = al.get(i).getSuccessors();
-			if (tab == null || visited.get(i)) {
-				visited.set(i, true);
-				i++;				
-			} else {
-				visited.set(i, true);
-				al.addAll(i, tab);
-				for (int a = 0; a < tab.size(); a++){
-					visited.add(i, false);
-				}
-			}
+		for (Node n : this.suffixeDepthOrder(root)) {
+			al.add(n);
 		}
 		return al;
 	}
+	
+	/**
+	 * Parcours en profondeur d'un arbre dans l'ordre suffixe, sans générer de liste.
+	 * @param root Racine de l'arbre.
+	 * @param visitor Traitement appliqué à chaque <code>Node</code> parcouru.
+	 * @see model.tree.Tree#suffixeDepthOrder(Node)
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public void suffixeDepthCourse(Node root, NodeVisitor visitor) {
+		for (Node n : this.suffixeDepthOrder(root)) {
+			visitor.visit(n);
+		}
+	}
+	
+	/**
+	 * Retourne un <code>Iterable</code> permettant de parcourir l'arbre dans l'ordre suffixe.
+	 * Le parcours n'alloue qu'une pile, réutilisée pour tout les <code>Node</code>.
+	 * @param root Racine de l'arbre.
+	 * @return Un <code>Iterable</code> sur les <code>Node</code> dans l'ordre suffixe.
+	 * @see model.tree.Tree.DepthIterator
+	 * @since 1.5
+	 * @version 1.0
+	 */
+	public Iterable<Node> suffixeDepthOrder(final Node root) {
+		return new Iterable<Node>() {
+			public Iterator<Node> iterator() {
+				return new DepthIterator(root, true);
+			}
+		};
+	}
 
 	/**
 	 * Cette fonction permet de savoir la liste de tout les <code>Node</code> que l'on peut supprimer en tapant sur un <code>Node</code>.
+	 * 
+	 * V 1.1 : 
+	 * <ul>
+	 * 	<li>On remonte le chemin via le parent des <code>Node</code> plutôt que de comparer les parcours préfixe et suffixe.
+	 * Si les parents ne sont pas (ou plus) valables pour ce <code>Tree</code>, ils sont recalculés une seule fois via <code>linkParents()</code>.</li>
+	 * </ul>
 	 * @param node <code>Node</code> que l'on souhaite supprimer. Il représente un peu la racine a partir duquel on remonte vers la vrai "racine"
 	 * @return Une <code>List<Node></code> représentant les <code>Node</code> que l'on doit supprimer. 
-	 * @see model.tree.Tree#prefixeDepthCourse(Node)
-	 * @see model.tree.Tree#suffixeDepthCourse(Node)
-	 * @see model.tree.Tree#getRoot()
+	 * @see model.tree.Tree#linkParents()
+	 * @see model.tree.Tree#pathToRoot(Node)
 	 * @since 1.2
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public List<Node> getToDelete(Node node) {
-		Node tree = (Node) this.getRoot();
-		List<Node> plist = this.prefixeDepthCourse(tree);
-		if (!plist.contains(node)) {
+		List<Node> result = this.pathToRoot(node);
+		if (result == null) {
+			this.linkParents();
+			result = this.pathToRoot(node);
+		}
+		if (result == null) {
 			return new ArrayList<Node>();
 		}
-		List<Node> slist = this.suffixeDepthCourse(tree);
+		return result;
+	}
+	
+	/**
+	 * Remonte le chemin allant du <code>Node</code> passé en paramètre jusqu'à la racine via les parents.
+	 * Chaque lien est vérifié : le parent doit bien posséder le <code>Node</code> parmi ses successeurs.
+	 * @param node <code>Node</code> à partir duquel on remonte.
+	 * @return Le chemin, en commençant par <code>node</code>, ou <code>null</code> si les parents ne mènent pas à la racine de ce <code>Tree</code>.
+	 * @see model.tree.Node#getParent()
+	 * @since 1.6
+	 * @version 1.0
+	 */
+	private List<Node> pathToRoot(Node node) {
 		List<Node> result = new ArrayList<Node>();
-		result.add(node);
-		int i = slist.indexOf(node);
-		int j = i + 1;
-		while (j < plist.size()) {
-			if (plist.indexOf(slist.get(i)) > plist.indexOf(slist.get(j))) {
-				result.add(slist.get(j));
-				i = j;
-				j++;
-			} else {
-				j++;
+		Node n = node;
+		while (n != null && n != this.root) {
+			result.add(n);
+			Node parent = n.getParent();
+			if (parent == null || !Tree.hasSuccessor(parent, n)) {
+				return null;
 			}
+			n = parent;
 		}
+		if (n == null) {
+			return null;
+		}
+		result.add(n);
 		return result;
 	}
+	
+	/**
+	 * Indique si <code>child</code> est l'un des successeurs de <code>parent</code> (comparaison par référence).
+	 * @param parent <code>Node</code> parent.
+	 * @param child <code>Node</code> recherché.
+	 * @return true si <code>child</code> est un successeur de <code>parent</code>.
+	 * @since 1.6
+	 * @version 1.0
+	 */
+	private static boolean hasSuccessor(Node parent, Node child) {
+		for (int i = 0; i < parent.getSuccessorCount(); i++) {
+			if (parent.getSuccessor(i) == child) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Renseigne le parent de chaque <code>Node</code> de notre <code>Tree</code>, la racine n'ayant pas de parent.
+	 * @see model.tree.Node#setParent(Node)
+	 * @see model.tree.Tree#prefixeDepthOrder(Node)
+	 * @since 1.6
+	 * @version 1.0
+	 */
+	public void linkParents() {
+		if (this.root == null) {
+			return;
+		}
+		this.root.setParent(null);
+		for (Node n : this.prefixeDepthOrder(this.root)) {
+			for (int i = 0; i < n.getSuccessorCount(); i++) {
+				n.getSuccessor(i).setParent(n);
+			}
+		}
+	}
+
+	/**
+	 * Retourne le <code>Node</code> de notre <code>Tree</code> ayant l'<code>id</code> donné.
+	 * @param id <code>id</code> du <code>Node</code> recherché, c'est-à-dire son rang dans l'ordre préfixe.
+	 * @return Le <code>Node</code>, ou <code>null</code> si <code>id</code> n'est pas compris entre 0 et le nombre de noeuds moins un.
+	 * @see model.tree.Tree#indexNodes()
+	 * @see model.tree.Node#getId()
+	 * @since 1.8
+	 * @version 1.2
+	 */
+	public Node getNode(int id) {
+		if (this.nodes == null) {
+			this.indexNodes();
+		}
+		return id >= 0 && id < this.nodes.length ? this.nodes[id] : null;
+	}
+	
+	/**
+	 * Retourne le <code>Node</code> de notre <code>Tree</code> ayant le <code>label</code> donné.
+	 * @param label <code>label</code> du <code>Node</code> recherché.
+	 * @return Le <code>Node</code>, ou <code>null</code> s'il n'est pas dans l'arbre ou si <code>label</code> est <code>null</code>.
+	 * Si plusieurs <code>Node</code> portent ce <code>label</code>, le premier dans l'ordre préfixe est retourné.
+	 * @see model.tree.Tree#indexNodes()
+	 * @since 1.8
+	 * @version 1.2
+	 */
+	public Node getNode(String label) {
+		if (label == null) {
+			return null;
+		}
+		if (this.nodes == null) {
+			this.indexNodes();
+		}
+		return this.labels.get(label);
+	}
+	
+	/**
+	 * Construit l'index des <code>Node</code> de notre <code>Tree</code> : chaque <code>Node</code> reçoit pour <code>id</code>
+	 * son rang dans l'ordre préfixe, de 0 au nombre de noeuds moins un, et est rangé à cet indice ainsi que sous son <code>label</code>.
+	 * L'index est construit lors de la première recherche, et invalidé dès qu'un de ses <code>Node</code> change de successeurs
+	 * ou est indexé par un autre <code>Tree</code>.
+	 * @see model.tree.Tree#prefixeDepthOrder(Node)
+	 * @see model.tree.Node#setSuccessors(List)
+	 * @see model.tree.Node#addSuccessor(Node)
+	 * @since 1.8
+	 * @version 1.2
+	 */
+	public void indexNodes() {
+		List<Node> order = this.root == null ? new ArrayList<Node>() : this.prefixeDepthCourse(this.root);
+		Node[] nodes = order.toArray(new Node[order.size()]);
+		Map<String, Node> labels = new HashMap<String, Node>(2 * nodes.length);
+		for (int id = 0; id < nodes.length; id++) {
+			Node n = nodes[id];
+			Tree previous = n.getIndexTree();
+			if (previous != null && previous != this) {
+				previous.invalidateIndex();
+			}
+			n.setIndex(this, id);
+			if (!labels.containsKey(n.getLabel())) {
+				labels.put(n.getLabel(), n);
+			}
+		}
+		this.nodes = nodes;
+		this.labels = labels;
+	}
+	
+	/**
+	 * Invalide l'index des <code>Node</code>, qui sera reconstruit lors de la prochaine recherche.
+	 * @see model.tree.Tree#indexNodes()
+	 * @since 1.12
+	 * @version 1.0
+	 */
+	void invalidateIndex() {
+		this.nodes = null;
+		this.labels = null;
+	}
 
 /**
  * Fonction permettant de supprimer les <code>Nodes</code>
@@ -314,9 +568,10 @@ public class Tree implements TreeModel, Comparable<Tree>, Cloneable {
  * @see model.tree.Tree#getToDelete(Node)
  * @see model.tree.Node#getSuccessors()
  * @since 1.2
- * @version 1.0
+ * @version 1.1
  */
 	public List<Node> delete(Node node) {
+		this.invalidateIndex();
 		List<Node> ln = this.getToDelete(node);
 		Collections.reverse(ln);
 		List<Node> result = new ArrayList<Node>();
@@ -343,24 +598,22 @@ public class Tree implements TreeModel, Comparable<Tree>, Cloneable {
 	
 	/**
 	 * Fonction peremttant de retourner le "code-barre" de l'arbre partant de la racine que l'on passe en paramètre.
+	 * 
+	 * V 1.1 : 
+	 * <ul>
+	 * 	<li>L'arbre est converti en <code>CompactTree</code> dont le "code-barre" est calculé en O(n log n),
+	 * 	plutôt que de concaténer récursivement les "code-barre" des sous-arbres.</li>
+	 * </ul>
 	 * @param root Racine à partir de laquelle on part pour générer le "code-barre".
 	 * @return La <code>Barcode</code> de l'arbre courant.
-	 * @see model.tree.Tree#isLeaf(Object)
 	 * @see model.tree.Tree#getBarcode()
-	 * @see model.tree.Tree#getBarcode(Node)
-	 * @see model.tree.Node#getSuccessors()
+	 * @see model.tree.CompactTree#fromNode(Node)
+	 * @see model.tree.CompactTree#getBarcode()
 	 * @since 1.2
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public Barcode getBarcode(Node root) {	
-		if (isLeaf(root)) {
-			return new Barcode();
-		}
-		List<Barcode> al = new ArrayList<Barcode>();
-		for (Node n : root.getSuccessors()) {
-			al.add(getBarcode(n));
-		}
-		return new Barcode(al.toArray(new Barcode[0]));
+		return CompactTree.fromNode(root).getBarcode();
 	}
 	
 	/**
@@ -373,94 +626,106 @@ public class Tree implements TreeModel, Comparable<Tree>, Cloneable {
 	 * <ul> 
 	 * En effet, plutôt que d'utiliser la liste préfixe et suffixe d'un arbre, on vérifie directement que les <code>Node</code>, 
 	 * soit des feuilles ou non et on les place donc respectivement dans le noyau ou dans le potentiel complémentaire.
+	 * 
+	 * V 1.2 : 
+	 * <ul>
+	 * 	<li>L'appartenance au noyau est testée dans un <code>HashSet</code> et le potentiel complémentaire est parcouru une seule fois, sans retrait :
+	 * 	la recherche est désormais linéaire.</li>
+	 * </ul>
+	 * 	
+	 * V 1.3 : 
+	 * <ul>
+	 * 	<li>Le noyau est lu dans la <code>CorePartition</code> de l'arbre et rangé dans l'ordre suffixe.</li>
+	 * </ul>
 	 * 	
 	 * @return La <code>List<Node></code> représentant les éléments du noyau.
-	 * @see model.tree.Tree#suffixeDepthCourse(Node)
-	 * @see model.tree.Tree#getRoot()
-	 * @see model.tree.Node#getSuccessors()
+	 * @see model.tree.Tree#getCorePartition()
 	 * @since 1.3
-	 * @version 1.1
+	 * @version 1.3
 	 */
 	public List<Node> searchCore() {
-		List<Node> s = suffixeDepthCourse((Node) this.getRoot());
-		
-		List<Node> core = new ArrayList<Node>();
-		List<Node> complementCore = new ArrayList<Node>();
-
-		for (Node n : s) {
-			if (this.isLeaf(n)) {
-				core.add(n);
-			} else {
-				complementCore.add(n);
-			}
-		}
-		
-		int i = 0;
-		boolean possibleCore;
-		while (i < complementCore.size()) {
-			possibleCore = true;
-			
-			for (Node nodeSuc : complementCore.get(i).getSuccessors()) {
-				if (core.contains(nodeSuc)) {
-					possibleCore = false;
-				}
-			}
-			
-			if (possibleCore == true) {
-				core.add(complementCore.get(i));
-				complementCore.remove(complementCore.get(i));
-			} else {
-				i++;
-			}
-		}
-
-		return core;	
+		return this.getCorePartition().getCore();
 	}
 	
 	/**
 	 * Méthode permettant de récuperer le complémentaire du noyau issues de la méthode serachCore.
-	 * Pour cela, on supprime tout les <code>Nodes</code> de la liste des prefixe contenu dans la liste des <code>Node</code> du <code>core</code>.
-	 * @return Le complémentaire du Noyau.
-	 * @see model.tree.Tree#searchCore()
-	 * @see model.tree.Tree#prefixeDepthCourse(Node)
-	 * @see model.tree.Tree#getRoot()
+	 * Pour cela, on retire de l'ordre suffixe tout les <code>Nodes</code> contenus dans le <code>core</code>.
+	 * 
+	 * V 1.1 : 
+	 * <ul>
+	 * 	<li>Le noyau est placé dans un <code>HashSet</code> : le retrait est linéaire plutôt que quadratique.</li>
+	 * </ul>
+	 * 
+	 * V 1.2 : 
+	 * <ul>
+	 * 	<li>Le complémentaire est lu dans la <code>CorePartition</code> de l'arbre, sans recalculer le noyau.</li>
+	 * </ul>
+	 * @return Le complémentaire du Noyau, dans l'ordre suffixe.
+	 * @see model.tree.Tree#getCorePartition()
 	 * @since 1.3
-	 * @version 1.0
+	 * @version 1.2
 	 */
 	public List<Node> searchComplementCore() {
-		List<Node> complementCore = this.suffixeDepthCourse((Node)this.getRoot());
-		List<Node> core = this.searchCore();
-		complementCore.removeAll(core);
-		return complementCore;
+		return this.getCorePartition().getComplementCore();
+	}
+	
+	/**
+	 * Calcule en un seul parcours suffixe le noyau de notre <code>Tree</code> et son complémentaire.
+	 * À utiliser plutôt que <code>searchCore()</code> puis <code>searchComplementCore()</code> lorsque les deux sont nécessaires.
+	 * @return Le partage des <code>Node</code> entre le noyau et son complémentaire.
+	 * @see model.tree.CorePartition
+	 * @since 1.10
+	 * @version 1.0
+	 */
+	public CorePartition getCorePartition() {
+		return new CorePartition(this.root);
 	}
 	
 	/**
 	 * Méthode clone permettant de retourner une copie "profonde" du <code>Tree</code>.
-	 * @throws CloneNotSupportedException
+	 * 
+	 * V 1.1 : 
+	 * <ul>
+	 * 	<li>Chaque <code>Node</code> est copié en même temps que son parent, à l'aide d'une pile explicite de couples (original, copie) :
+	 * 	la copie est linéaire et ne dépend plus de l'égalité des <code>Node</code>, ni de la profondeur de l'arbre.</li>
+	 * </ul>
+	 * @return Une copie du <code>Tree</code>, dont les <code>Node</code> ont les mêmes <code>label</code>, profondeurs et parents.
+	 * @see model.tree.Node#setSuccessors(List)
 	 * @since 1.3
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public Object clone() {
 		if (root == null) {
 			return new Tree(null);
 		}
-		List<Node> newtree = new ArrayList<Node>();
-		List<Node> pref = prefixeDepthCourse(root);
-		
-		for (Node n : pref) {
-			newtree.add(new Node(n.getLabel(),n.getDepth()));
-		}
-		
-		for (Node n : newtree) {
-			List<Node> ln = new ArrayList<Node>();
-			for (Node n2 : pref.get(newtree.indexOf(n)).getSuccessors()) {
-				 ln.add(newtree.get(pref.indexOf(n2)));
+		Node[] stack = new Node[16];
+		Node[] copies = new Node[16];
+		int top = 0;
+		Node newroot = new Node(this.root.getLabel(), this.root.getDepth());
+		stack[top] = this.root;
+		copies[top++] = newroot;
+		while (top > 0) {
+			Node n = stack[--top];
+			Node copy = copies[top];
+			stack[top] = null;
+			int successors = n.getSuccessorCount();
+			if (top + successors > stack.length) {
+				int capacity = Math.max(stack.length * 2, top + successors);
+				stack = Arrays.copyOf(stack, capacity);
+				copies = Arrays.copyOf(copies, capacity);
+			}
+			List<Node> ln = new ArrayList<Node>(successors);
+			for (int i = 0; i < successors; i++) {
+				Node child = n.getSuccessor(i);
+				Node childCopy = new Node(child.getLabel(), child.getDepth());
+				childCopy.setParent(copy);
+				ln.add(childCopy);
+				stack[top] = child;
+				copies[top++] = childCopy;
 			}
-			n.setSuccessors(ln);
+			copy.setSuccessors(ln);
 		}
-		
-		
-		return new Tree(newtree.get(0));
+		return new Tree(newroot);
 	}
 
 	
@@ -488,34 +753,142 @@ public class Tree implements TreeModel, Comparable<Tree>, Cloneable {
 	 * Méthode permettant de parcourir un arbre via son tableau prefixe du parcours en profondeur.
 	 * Pour chaque <code>Node</code> exploré, on affiche ces enfants, ce qui permet de facilement dessiné l'arbre ou du moins se le représenter sous forme textuel.
 	 * @return Une représentation textuel d'un arbre.
-	 * @see model.tree.Tree#prefixeDepthCourse(Node)
+	 * @see model.tree.Tree#prefixeDepthOrder(Node)
 	 * @see model.tree.Tree#getRoot()
 	 * @see model.tree.Node#getLabel()
-	 * @see model.tree.Node#getSuccessors()
+	 * @see model.tree.Node#getSuccessor(int)
 	 * @see model.tree.Node#getSuccessorCount()
 	 * @since 1.3
-	 * @version 1.0
+	 * @version 1.1
 	 */
 	public String toString() {
-		List<Node> prefixe = this.prefixeDepthCourse((Node)this.getRoot());
-		int index = 0;
-		StringBuffer str = new StringBuffer();
-		for (Node n : prefixe) {
+		StringBuilder str = new StringBuilder();
+		for (Node n : this.prefixeDepthOrder((Node)this.getRoot())) {
 			str.append("Node " + n.getLabel() + " ayant pour enfants : ");
-			if (n.getSuccessorCount() != 0) {
-				for (Node child : n.getSuccessors()) {
-					str.append(child.getLabel());
-					if (index < n.getSuccessorCount() - 1) {
-						str.append(",");
-						index++;
-					}
+			for (int i = 0; i < n.getSuccessorCount(); i++) {
+				str.append(n.getSuccessor(i).getLabel());
+				if (i < n.getSuccessorCount() - 1) {
+					str.append(",");
 				}
-				index = 0;
 			}
 			str.append("\n");
 		}
 		return str.toString();
 	}
+	
+	/**
+	 * Itérateur permettant de parcourir un arbre en profondeur, dans l'ordre préfixe ou suffixe,
+	 * à l'aide d'une pile explicite de <code>Node</code> et de l'indice du prochain successeur à visiter.
+	 * Aucune copie des listes de successeurs n'est effectuée.
+	 * 
+	 * @author Grégoire
+	 * @date 26 jan. 2016
+	 * @version 1.0
+	 */
+	private static class DepthIterator implements Iterator<Node> {
+		
+		/**
+		 * Indique si l'on parcourt l'arbre dans l'ordre suffixe (true) ou préfixe (false).
+		 */
+		private final boolean suffixe;
+		
+		/**
+		 * Pile des <code>Node</code> en cours d'exploration.
+		 */
+		private Node[] stack;
+		
+		/**
+		 * Indice du prochain successeur à explorer pour chaque <code>Node</code> de la pile.
+		 */
+		private int[] index;
+		
+		/**
+		 * Hauteur de la pile.
+		 */
+		private int top;
+		
+		/**
+		 * Prochain <code>Node</code> à retourner, <code>null</code> si le parcours est terminé.
+		 */
+		private Node next;
+		
+		/**
+		 * Constructeur de l'itérateur.
+		 * @param root Racine de l'arbre à parcourir.
+		 * @param suffixe true pour l'ordre suffixe, false pour l'ordre préfixe.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		public DepthIterator(Node root, boolean suffixe) {
+			this.suffixe = suffixe;
+			this.stack = new Node[16];
+			this.index = new int[16];
+			this.top = 0;
+			this.push(root);
+			this.next = suffixe ? this.advance() : root;
+		}
+		
+		public boolean hasNext() {
+			return this.next != null;
+		}
+		
+		public Node next() {
+			if (this.next == null) {
+				throw new NoSuchElementException();
+			}
+			Node result = this.next;
+			this.next = this.advance();
+			return result;
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+		
+		/**
+		 * Ajoute un <code>Node</code> sur la pile en l'agrandissant si besoin.
+		 * @param n <code>Node</code> à empiler.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		private void push(Node n) {
+			if (this.top == this.stack.length) {
+				this.stack = Arrays.copyOf(this.stack, this.top * 2);
+				this.index = Arrays.copyOf(this.index, this.top * 2);
+			}
+			this.stack[this.top] = n;
+			this.index[this.top] = 0;
+			this.top++;
+		}
+		
+		/**
+		 * Avance dans le parcours jusqu'au prochain <code>Node</code> à retourner.
+		 * @return Le prochain <code>Node</code> ou <code>null</code> si le parcours est terminé.
+		 * @since 1.0
+		 * @version 1.0
+		 */
+		private Node advance() {
+			while (this.top > 0) {
+				Node n = this.stack[this.top - 1];
+				int i = this.index[this.top - 1];
+				if (i < n.getSuccessorCount()) {
+					this.index[this.top - 1] = i + 1;
+					Node child = n.getSuccessor(i);
+					this.push(child);
+					if (!this.suffixe) {
+						return child;
+					}
+				} else {
+					this.top--;
+					this.stack[this.top] = null;
+					if (this.suffixe) {
+						return n;
+					}
+				}
+			}
+			return null;
+		}
+	}
 
 
 
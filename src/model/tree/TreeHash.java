@@ -0,0 +1,67 @@
+package model.tree;
+
+/**
+ * Classe utilitaire <code>TreeHash</code> définissant l'empreinte canonique sur 64 bits d'un arbre.
+ * L'empreinte d'un noeud est calculée à partir de la somme des empreintes (mélangées) de ses fils :
+ * elle ne dépend donc pas de l'ordre des fils et deux arbres isomorphes ont toujours la même empreinte.
+ * Une forêt est représentée, comme pour <code>GhostTree</code>, par une racine "fantôme" ayant pour fils les racines des arbres.
+ * Deux arbres différents peuvent avoir la même empreinte, mais la probabilité en est négligeable (de l'ordre de 2^-64 par paire).
+ * @author Grégoire
+ * @date 29 jan. 2016
+ * @see model.tree.Barcode#getCanonicalHash()
+ * @version 1.0
+ */
+public final class TreeHash {
+
+	/**
+	 * Constante ajoutée à la somme des fils avant mélange.
+	 */
+	private static final long NODE_SEED = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Constante utilisée pour distinguer l'empreinte d'un fils de celle d'un noeud.
+	 */
+	private static final long CHILD_SEED = 0xC2B2AE3D27D4EB4FL;
+
+	/**
+	 * Constructeur privé, cette classe n'ayant que des méthodes <code>static</code>.
+	 */
+	private TreeHash() {
+	}
+
+	/**
+	 * Retourne l'empreinte d'un noeud connaissant la somme des contributions de ses fils.
+	 * @param childSum Somme des <code>child(long)</code> des fils, 0 pour une feuille.
+	 * @return L'empreinte du noeud.
+	 * @see model.tree.TreeHash#child(long)
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static long node(long childSum) {
+		return TreeHash.mix(childSum + NODE_SEED);
+	}
+
+	/**
+	 * Retourne la contribution d'un fils d'empreinte <code>hash</code> à la somme de son parent.
+	 * @param hash Empreinte du fils.
+	 * @return La contribution du fils.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	public static long child(long hash) {
+		return TreeHash.mix(hash ^ CHILD_SEED);
+	}
+
+	/**
+	 * Fonction de mélange de <code>SplitMix64</code>.
+	 * @param z Valeur à mélanger.
+	 * @return La valeur mélangée.
+	 * @since 1.0
+	 * @version 1.0
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
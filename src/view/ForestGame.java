@@ -34,7 +34,7 @@ import javax.swing.border.Border;
 import javax.swing.tree.DefaultTreeCellRenderer;
 
 import model.ai.Exaustive;
-import model.ai.Ulehla;
+import model.ai.LinearUlehla;
 import model.tree.Node;
 import model.tree.RandomGenerateTree;
 import model.tree.Tree;
@@ -500,13 +500,10 @@ import model.tree.Tree;
 						}
 					}
 
-					// Liste (ArrayList) de tous les noeuds composant l'arbre
-					List<Node> alOfNode = model.prefixeDepthCourse((Node) model.getRoot());
-
 					// Père du nouveau noeud à ajouter
 					Node fatherNode = null;
 
-					// Parcours de tous les noeuds de l'arbre
+					// Recherche dans l'index des noeuds de l'arbre
 					// 1 - Le noeud existe-t-il déja dans l'arbre ?
 					// 2 - Récupérer le noeud père possédant bientôt un nouvel
 					// enfant
@@ -514,22 +511,11 @@ import model.tree.Tree;
 
 						// Le nouveau noeud à ajouter, est-il déjà prénsent dans
 						// l'arbre ?
-						boolean nodeIsAlreadyPresent = false;
-
-						// Parcourir tous les noeuds de l'arbre
-						for (Node n : alOfNode) {
-							// Le noeud à ajouter existe-t-il déja dans l'arbre
-							// ?
-							if (n.getLabel().equals(nodeLabel)) {
-								nodeIsAlreadyPresent = true;
-							}
+						boolean nodeIsAlreadyPresent = model.getNode(nodeLabel) != null;
 
-							// Récupérer le noeud père possédant bientôt un
-							// nouvel enfant
-							if (n.getLabel().equals(addNodeCombo.getSelectedItem())) {
-								fatherNode = n;
-							}
-						}
+						// Récupérer le noeud père possédant bientôt un
+						// nouvel enfant
+						fatherNode = model.getNode((String) addNodeCombo.getSelectedItem());
 
 						// Si le noeud à ajouter n'existe pas encore (dans
 						// l'arbre), alors continuer
@@ -578,19 +564,9 @@ import model.tree.Tree;
 				// vide
 				if (deleteNodeCombo.getItemCount() != 0) {
 
-					// Liste (ArrayList) de touts les noeuds composant l'arbre
-					List<Node> alOfNode = model.suffixeDepthCourse((Node) model.getRoot());
-
-					// Noeud à supprimer
-					Node node = null;
-
-					// Parcourir la liste de tous les noeuds de l'arbre
-					for (Node n : alOfNode) {
-						// Récupérer le noeud à supprimer
-						if (n.getLabel().equals(deleteNodeCombo.getSelectedItem())) {
-							node = n;
-						}
-					}
+					// Récupérer le noeud à supprimer dans l'index des noeuds
+					// de l'arbre
+					Node node = model.getNode((String) deleteNodeCombo.getSelectedItem());
 
 					// Remise à zéro du model
 					model = new Tree(new Node("-1", 0, model.delete(node)));
@@ -598,9 +574,6 @@ import model.tree.Tree;
 					// Configuration du model
 					tree.setModel(model);
 
-					// Liste (ArrayList) de tous les noeuds composant l'arbre
-					alOfNode = model.suffixeDepthCourse((Node) model.getRoot());
-
 					// Masquer la racine de l'arbre (noeud fantome)
 					tree.setRootVisible(false);
 
@@ -628,9 +601,10 @@ import model.tree.Tree;
 
 				// Si la méthode Ulehla est selectionnée
 				if (ulehlaRadio.isSelected() && model != null) {
-					String txt = new Ulehla(model).getWinninghits().toString();
+					List<Node> hits = new LinearUlehla(model).getWinninghits();
+					String txt = hits.toString();
 					
-					if (!txt.equals("[-1]")) {
+					if (!hits.isEmpty() && !txt.equals("[-1]")) {
 						winningHitsLabel.setText(txt);
 					}
 					else {
@@ -773,8 +747,8 @@ import model.tree.Tree;
 			addNodeCombo.removeAllItems();
 			deleteNodeCombo.removeAllItems();
 
-			// Liste (ArrayList) de tous les noeuds composant l'arbre
-			List<Node> alOfNode = model.suffixeDepthCourse((Node) model.getRoot());
+			// Parcours de tous les noeuds composant l'arbre
+			Iterable<Node> alOfNode = model.suffixeDepthOrder((Node) model.getRoot());
 
 			// Liste vide (ArrayList) d'entiers
 			List<Integer> alOfInteger = new ArrayList<Integer>();